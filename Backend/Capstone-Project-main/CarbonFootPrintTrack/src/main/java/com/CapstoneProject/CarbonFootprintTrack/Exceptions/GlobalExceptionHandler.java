@@ -1,5 +1,6 @@
 package com.CapstoneProject.CarbonFootprintTrack.Exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -19,4 +20,10 @@ public class GlobalExceptionHandler {
         String message =  " "+ ex.getMessage();
         return ResponseEntity.status(HttpStatus.OK).body(message);
     }
+    @ExceptionHandler(UserManagementUnavailableException.class)
+    public ResponseEntity<String> handleUserManagementUnavailableException(UserManagementUnavailableException ex) {
+
+        String message =  " "+ ex.getMessage();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(message);
+    }
 }
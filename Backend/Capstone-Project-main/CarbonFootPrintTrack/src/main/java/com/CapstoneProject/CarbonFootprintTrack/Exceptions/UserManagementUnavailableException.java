@@ -0,0 +1,8 @@
+package com.CapstoneProject.CarbonFootprintTrack.Exceptions;
+
+// UserManagement could not be reached in time, or the circuit breaker / bulkhead refused the call
+public class UserManagementUnavailableException extends RuntimeException{
+    public UserManagementUnavailableException(Throwable cause) {
+        super("UserManagement is currently unavailable, please retry shortly", cause);
+    }
+}
@@ -0,0 +1,18 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL) // Series that were not requested are left out of the payload
+public class BreakdownResponseDto {
+    private List<ElectricityDto> electricity;
+    private List<WastageDto> wastage;
+    private List<TransportationDto> transportation;
+}
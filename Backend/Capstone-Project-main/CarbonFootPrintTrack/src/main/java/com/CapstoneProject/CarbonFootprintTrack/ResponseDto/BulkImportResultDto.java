@@ -0,0 +1,18 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BulkImportResultDto {
+    private long imported;
+    private long rejected; // Records without a userId or for a user UserManagement doesn't know, skipped
+    private int users;
+    private double totalEmissions;
+    private List<Long> unknownUserIds;
+}
@@ -12,4 +12,6 @@ import java.util.Date;
 public class DashboardResponseDto {
     private String date;
     private double totalCarbonFootprint;
+    // Pass back as beforeId, with date as before, to get the next page; null for a compacted month
+    private Long id;
 }
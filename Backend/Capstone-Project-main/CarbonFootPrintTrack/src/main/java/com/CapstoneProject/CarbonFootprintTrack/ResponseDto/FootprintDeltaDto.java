@@ -0,0 +1,14 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class FootprintDeltaDto {
+    private Long userId;
+    private double delta; // Amount to add to the user's totalCarbonFootprint
+    private String idempotencyKey; // Lets UserManagement skip a delta it has already applied
+}
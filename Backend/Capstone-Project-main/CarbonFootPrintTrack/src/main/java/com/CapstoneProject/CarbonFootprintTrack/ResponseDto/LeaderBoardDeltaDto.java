@@ -0,0 +1,23 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Change to a streamed top-N since the previous event: entries that are new or whose rank, name or
+// total changed, and users that dropped out. Clients drop "removed", upsert "changed" by userId and sort by rank.
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class LeaderBoardDeltaDto {
+    private List<RankedLeaderBoardDto> changed;
+    private List<Long> removed;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changed.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// First event of a leaderboard stream: the city's current top entries in rank order
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class LeaderBoardSnapshotDto {
+    private String city;
+    private List<RankedLeaderBoardDto> entries;
+}
@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RankedLeaderBoardDto {
+    private long rank; // 1-based position within the city
+    private Long userId;
+    private String name;
+    private String city;
+    private double totalCarbonFootprint;
+}
@@ -0,0 +1,17 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RollupDto {
+    private String periodStart;
+    private double transportation;
+    private double electricity;
+    private double wastage;
+    private double totalCarbonFootprint;
+    private long submissions;
+}
@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One keyset page of UserManagement's /users listing; nextCursor is null on the last page
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserPageDto {
+    private List<UserSummaryDto> users;
+    private Long nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonFootprintTrack.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserSummaryDto {
+    private Long id;
+    private String name;
+    private String email;
+    private String city;
+    private double totalCarbonFootprint;
+}
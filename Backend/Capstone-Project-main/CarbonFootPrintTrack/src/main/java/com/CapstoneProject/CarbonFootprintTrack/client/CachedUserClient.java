@@ -0,0 +1,56 @@
+package com.CapstoneProject.CarbonFootprintTrack.client;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+// Near-cache for UserClient.getUserById. Entries are dropped when UserManagement reports a change,
+// when this service delivers footprint deltas for the user, and otherwise after the TTL.
+// Failed lookups are not cached. Misses are loaded outside the cache rather than through Cache.get(key, loader),
+// whose loader runs inside a synchronized map bin and would pin a virtual thread for the whole Feign call;
+// concurrent misses for one user may each call UserManagement.
+@Component
+public class CachedUserClient {
+
+    private final UserClient userClient;
+    private final Cache<Long, User> users;
+
+    public CachedUserClient(UserClient userClient,
+                            @Value("${carbontrack.users.cache-max-size:10000}") long maxSize,
+                            @Value("${carbontrack.users.cache-ttl:5m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.userClient = userClient;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user.profile");
+    }
+
+    public User getUserById(Long userId) {
+        User user = users.getIfPresent(userId);
+        if (user == null) {
+            user = userClient.getUserById(userId);
+            if (user != null) {
+                users.put(userId, user);
+            }
+        }
+        return user;
+    }
+
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        users.invalidateAll(userIds);
+    }
+}
@@ -1,23 +1,34 @@
 package com.CapstoneProject.CarbonFootprintTrack.client;
 
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.FootprintDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.UserPageDto;
 import com.CapstoneProject.CarbonFootprintTrack.model.User;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
-@FeignClient(name = "UserManagement", url = "http://localhost:9999")
+// Resolved through Eureka and load-balanced across UserManagement instances unless carbontrack.users.url pins an address.
+// Calls go through a circuit breaker and bulkhead; see UserClientFallbackFactory for what callers see when they trip.
+@FeignClient(name = "UserManagement", url = "${carbontrack.users.url:}", fallbackFactory = UserClientFallbackFactory.class)
 public interface UserClient {
+    // Keyset page of users with id > afterId; follow nextCursor to page through everyone
     @GetMapping("/users")
-    List<User> getAllUsers();
+    UserPageDto getUsers(@RequestParam("afterId") Long afterId, @RequestParam("limit") int limit);
 
     @GetMapping("/users/{userId}")
     User getUserById(@PathVariable("userId") Long userId);
 
     @PutMapping("/users/{id}")
     User updateUser(@PathVariable("id") Long userId, @RequestBody User user);
+
+    // Atomically adds each delta to the matching user's total; returns the ids that did not match a user
+    @PostMapping("/users/footprint-deltas")
+    List<Long> addFootprintDeltas(@RequestBody List<FootprintDeltaDto> deltas);
 }
 
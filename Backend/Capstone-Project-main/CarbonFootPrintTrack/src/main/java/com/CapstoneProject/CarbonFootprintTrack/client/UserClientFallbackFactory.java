@@ -0,0 +1,51 @@
+package com.CapstoneProject.CarbonFootprintTrack.client;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserManagementUnavailableException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.FootprintDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.UserPageDto;
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import feign.FeignException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// UserClient calls fail fast instead of tying up request threads while UserManagement is down or slow.
+// If UserManagement answered with an error status, that FeignException is rethrown unchanged.
+// Timeouts, connection failures, an open circuit or a full bulkhead become UserManagementUnavailableException (503).
+// Nothing is faked: footprint deltas in particular must fail so the outbox retries them.
+@Component
+public class UserClientFallbackFactory implements FallbackFactory<UserClient> {
+
+    @Override
+    public UserClient create(Throwable cause) {
+        return new UserClient() {
+            @Override
+            public UserPageDto getUsers(Long afterId, int limit) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public User getUserById(Long userId) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public User updateUser(Long userId, User user) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public List<Long> addFootprintDeltas(List<FootprintDeltaDto> deltas) {
+                throw unavailable(cause);
+            }
+        };
+    }
+
+    private static RuntimeException unavailable(Throwable cause) {
+        if (cause instanceof FeignException feignException && feignException.status() > 0) {
+            return feignException;
+        }
+        return new UserManagementUnavailableException(cause);
+    }
+}
@@ -0,0 +1,67 @@
+package com.CapstoneProject.CarbonFootprintTrack.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Observes every UserClient call as "carbontrack.userclient.requests", tagged with the Feign method and the
+// response status (IO_ERROR when no response came back). That yields the timer and, with tracing on, a client
+// span whose W3C traceparent header is added to the outgoing request so UserManagement joins the same trace.
+// It wraps the transport, so the time excludes encoding/decoding and calls rejected by the circuit breaker
+// or bulkhead never get here.
+@Component
+public class UserClientMetrics implements Capability {
+
+    private final ObservationRegistry observationRegistry;
+
+    public UserClientMetrics(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            MethodMetadata metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+            String method = metadata == null ? "unknown" : metadata.configKey();
+
+            // Feign requests are immutable, so propagation headers go into a copy that the call is rebuilt from
+            Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+            RequestReplySenderContext<Map<String, Collection<String>>, Response> context =
+                    new RequestReplySenderContext<>((carrier, key, value) -> carrier.put(key, List.of(value)));
+            context.setCarrier(headers);
+            context.setRemoteServiceName("UserManagement");
+
+            Observation observation = Observation.createNotStarted("carbontrack.userclient.requests", () -> context, observationRegistry)
+                    .contextualName(method)
+                    .lowCardinalityKeyValue("method", method)
+                    .highCardinalityKeyValue("http.url", request.url())
+                    .start();
+            String status = "IO_ERROR";
+            try (Observation.Scope scope = observation.openScope()) {
+                Response response = client.execute(Request.create(request.httpMethod(), request.url(), headers,
+                        request.body(), request.charset(), request.requestTemplate()), options);
+                context.setResponse(response);
+                status = String.valueOf(response.status());
+                return response;
+            } catch (IOException | RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.lowCardinalityKeyValue("status", status);
+                observation.stop();
+            }
+        };
+    }
+}
@@ -1,20 +1,46 @@
 package com.CapstoneProject.CarbonFootprintTrack.controller;
 
 import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.*;
+import com.CapstoneProject.CarbonFootprintTrack.emission.EmissionFactorRegistry;
 import com.CapstoneProject.CarbonFootprintTrack.entities.CarbonFootprintForm;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.LeaderboardBroadcaster;
 import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
-import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+import com.CapstoneProject.CarbonFootprintTrack.model.RollupPeriod;
 import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.service.BulkImportService;
+import com.CapstoneProject.CarbonFootprintTrack.service.CarbonExportService;
 import com.CapstoneProject.CarbonFootprintTrack.service.CarbonTrackService;
 import com.CapstoneProject.CarbonFootprintTrack.service.LeaderBoardService;
+import com.CapstoneProject.CarbonFootprintTrack.service.ResourceVersionService;
+import com.CapstoneProject.CarbonFootprintTrack.service.RollupService;
 import com.CapstoneProject.CarbonFootprintTrack.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -30,6 +56,36 @@ public class CarbonTrackController {
     @Autowired
     private LeaderBoardService leaderBoardService;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private CarbonExportService carbonExportService;
+
+    @Autowired
+    private EmissionFactorRegistry emissionFactorRegistry;
+
+    @Autowired
+    private LeaderboardBroadcaster leaderboardBroadcaster;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    // Histories may be stored but are revalidated on every use, which costs one version lookup
+    private static final CacheControl HISTORY_CACHE = CacheControl.noCache().cachePrivate();
+
+    @Value("${carbontrack.http.leaderboard-max-age:5s}")
+    private Duration leaderboardMaxAge;
+
+    @Value("${carbontrack.export.request-timeout:10m}")
+    private Duration exportTimeout;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 //    @PostMapping("/register")
 //    public ResponseEntity<Map<String, String>> addUser(@RequestBody RegisterDto registerDto) {
 //        String message = userService.UserRegister(registerDto);
@@ -59,43 +115,209 @@ public class CarbonTrackController {
         return userService.getUserProfile(userId);
     }
 
+    // Change notification from UserManagement: drops the cached profile so the next read refetches it
+    @PostMapping("/users/{userId}/changed")
+    public ResponseEntity<Void> userChanged(@PathVariable Long userId) {
+        userService.userChanged(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // The same for every user a batch of footprint deltas changed
+    @PostMapping("/users/changed")
+    public ResponseEntity<Void> usersChanged(@RequestBody List<Long> userIds) {
+        userService.usersChanged(userIds);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Every user as one JSON array, streamed while paging through UserManagement
     @GetMapping("/allUsers")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                userService.forEachUserPage(users -> {
+                    try {
+                        for (UserSummaryDto user : users) {
+                            generator.writeObject(user);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/users")
+    public UserPageDto getUsers(@RequestParam(defaultValue = "0") Long afterId,
+                                @RequestParam(defaultValue = "100") int limit) {
+        return userService.getUsers(afterId, limit);
     }
 
+    // Streamed export of carbondetails; format is json (array), ndjson or csv.
+    // Page with afterId = last id received and limit; filter by userId, city and from/to dates.
     @GetMapping("/allcarbondetails")
-    public List<CarbonFootPrint> getAllCarbonDetails() {
-        return carbonTrackService.getAllCarbonDetails();
+    public ResponseEntity<StreamingResponseBody> getAllCarbonDetails(
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            @RequestParam(defaultValue = "0") int limit,
+            WebRequest request) {
+        CarbonExportService.Format exportFormat;
+        try {
+            exportFormat = CarbonExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be json, ndjson or csv");
+        }
+        // Only exports get the long async timeout; other async responses keep the server default
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        MediaType contentType = switch (exportFormat) {
+            case CSV -> new MediaType("text", "csv");
+            case NDJSON -> MediaType.APPLICATION_NDJSON;
+            default -> MediaType.APPLICATION_JSON;
+        };
+        StreamingResponseBody body = out -> carbonExportService.export(out, exportFormat, afterId, userId, city, from, to, limit);
+        return ResponseEntity.ok().contentType(contentType).body(body);
     }
 
     @GetMapping("/user/{userId}/dashboard")
-    public List<DashboardResponseDto> getDashboard(@PathVariable Long userId) {
-        return carbonTrackService.getDashboard(userId);
+    public ResponseEntity<List<DashboardResponseDto>> getDashboard(@PathVariable Long userId,
+                                                                   @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate before,
+                                                                   @RequestParam(required = false) Long beforeId,
+                                                                   @RequestParam(defaultValue = "" + CarbonTrackService.DEFAULT_DASHBOARD_PAGE) int limit,
+                                                                   WebRequest request) {
+        return conditionalUser(request, userId,
+                () -> carbonTrackService.getDashboard(userId, before, beforeId, limit));
     }
 
     @GetMapping("/user/{userId}/electricity")
-    public List<ElectricityDto> getElectricityCarbonFootprint(@PathVariable Long userId) {
-        return carbonTrackService.getElectricityCarbonFootprint(userId);
+    public ResponseEntity<List<ElectricityDto>> getElectricityCarbonFootprint(@PathVariable Long userId, WebRequest request) {
+        return conditionalUser(request, userId,
+                () -> carbonTrackService.getElectricityCarbonFootprint(userId));
     }
 
     @GetMapping("/user/{userId}/wastage")
-    public List<WastageDto> getWastageCarbonFootprint(@PathVariable Long userId) {
-        return carbonTrackService.getWastageCarbonFootprint(userId);
+    public ResponseEntity<List<WastageDto>> getWastageCarbonFootprint(@PathVariable Long userId, WebRequest request) {
+        return conditionalUser(request, userId,
+                () -> carbonTrackService.getWastageCarbonFootprint(userId));
     }
 
     @GetMapping("/user/{userId}/transportation")
-    public List<TransportationDto> getTransportation(@PathVariable Long userId) {
-        return carbonTrackService.getTransportation(userId);
+    public ResponseEntity<List<TransportationDto>> getTransportation(@PathVariable Long userId, WebRequest request) {
+        return conditionalUser(request, userId,
+                () -> carbonTrackService.getTransportation(userId));
+    }
+
+    @GetMapping("/user/{userId}/breakdown")
+    public ResponseEntity<BreakdownResponseDto> getBreakdown(@PathVariable Long userId,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+                                                             @RequestParam(required = false) Set<String> fields,
+                                                             WebRequest request) {
+        return conditionalUser(request, userId,
+                () -> carbonTrackService.getBreakdown(userId, from, to, fields));
     }
 
+    @GetMapping("/user/{userId}/rollups")
+    public List<RollupDto> getRollups(@PathVariable Long userId,
+                                      @RequestParam(defaultValue = "MONTH") RollupPeriod period,
+                                      @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+        return rollupService.getRollups(userId, period, from, to);
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<String> rebuildRollups() {
+        long processed = rollupService.rebuild();
+        return ResponseEntity.ok("Rollups rebuilt from " + processed + " carbon footprint records");
+    }
+
+    // The city by rank from 0-based position "offset". Without "limit" the rest of the city is returned, as the
+    // original endpoint did; with it, one page of at most 500 entries.
     @GetMapping("/leaderBoard/{city}")
-    public List<leaderBoard> getLeaderBoard(@PathVariable String city) {
-        return leaderBoardService.getLeaderBoard(city);
+    public ResponseEntity<List<leaderBoard>> getLeaderBoard(@PathVariable String city,
+                                                            @RequestParam(defaultValue = "0") long offset,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            WebRequest request) {
+        return conditional(request, resourceVersionService.cityETag(city), leaderboardCache(),
+                () -> leaderBoardService.getLeaderBoard(city, offset, limit));
+    }
+
+    @GetMapping("/leaderBoard/{city}/top")
+    public ResponseEntity<List<RankedLeaderBoardDto>> getTopRanked(@PathVariable String city,
+                                                                   @RequestParam(defaultValue = "10") int n,
+                                                                   WebRequest request) {
+        return conditional(request, resourceVersionService.cityETag(city), leaderboardCache(),
+                () -> leaderBoardService.getTopRanked(city, n));
+    }
+
+    @GetMapping("/leaderBoard/{city}/rank/{userId}")
+    public ResponseEntity<List<RankedLeaderBoardDto>> getRankWithNeighbours(@PathVariable String city,
+                                                                            @PathVariable Long userId,
+                                                                            @RequestParam(defaultValue = "5") int radius,
+                                                                            WebRequest request) {
+        return conditional(request, resourceVersionService.cityETag(city), leaderboardCache(),
+                () -> leaderBoardService.getRankWithNeighbours(city, userId, radius));
+    }
+
+    // Live top-n as server-sent events: a "snapshot", then a "delta" per tick in which the top n changed.
+    // Not /stream: CarbonTrackReactive serves the whole city as NDJSON on that path, under the same /carbonTrack prefix.
+    @GetMapping(value = "/leaderBoard/{city}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderBoard(@PathVariable String city,
+                                        @RequestParam(defaultValue = "10") int n) {
+        return leaderboardBroadcaster.subscribe(city, n);
     }
 
     @PostMapping("/calculateAndSubmit")
     public ResponseEntity<String> calculateAndSubmit(@RequestBody CarbonFootprintForm form) {
         return carbonTrackService.calculateAndSubmit(form);
     }
+
+    // Historical import: body is a JSON array or NDJSON stream of CarbonFootprintForm records
+    @PostMapping(value = "/bulkSubmit", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResultDto> bulkSubmit(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importForms(request.getInputStream()));
+    }
+
+    @GetMapping("/emissionFactors")
+    public List<EmissionFactor> getEmissionFactors() {
+        return emissionFactorRegistry.getAll();
+    }
+
+    // Create or update (when the body carries an id) a factor; the new values apply to the next submission
+    @PostMapping("/emissionFactors")
+    public EmissionFactor saveEmissionFactor(@RequestBody EmissionFactor factor) {
+        return emissionFactorRegistry.save(factor);
+    }
+
+    @DeleteMapping("/emissionFactors/{id}")
+    public ResponseEntity<String> deleteEmissionFactor(@PathVariable Long id) {
+        emissionFactorRegistry.delete(id);
+        return ResponseEntity.ok("Emission factor deleted");
+    }
+
+    private CacheControl leaderboardCache() {
+        return CacheControl.maxAge(leaderboardMaxAge).cachePublic();
+    }
+
+    // A user's history: the ETag and the body come from the same database, see ResourceVersionService.withUserETag
+    private <T> ResponseEntity<T> conditionalUser(WebRequest request, Long userId, Supplier<T> body) {
+        return resourceVersionService.withUserETag(userId, etag -> conditional(request, etag, HISTORY_CACHE, body));
+    }
+
+    // 304 with no query when the client's ETag is current; otherwise the body is built and sent with its validator
+    private <T> ResponseEntity<T> conditional(WebRequest request, String etag, CacheControl cacheControl, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            // checkNotModified has already set the status and the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(etag).body(body.get());
+    }
 }
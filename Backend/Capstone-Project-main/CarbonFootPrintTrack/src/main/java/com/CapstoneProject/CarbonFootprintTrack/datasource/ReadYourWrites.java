@@ -0,0 +1,38 @@
+package com.CapstoneProject.CarbonFootprintTrack.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Keeps a user's own reads on the primary for a while after they submit, so a replica that has not caught up
+// yet cannot hide the submission from them. The window should exceed carbontrack.datasource.max-lag.
+// Remembered per instance: a read served by another instance is only bounded by max-lag.
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(@Value("${carbontrack.datasource.read-your-writes:10s}") Duration window,
+                          @Value("${carbontrack.datasource.read-your-writes-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void wrote(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    // Call at the start of a read-only transaction about this user, before its first query
+    public void route(Long userId) {
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            ReplicaRoutingDataSource.usePrimaryForCurrentTransaction();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.CapstoneProject.CarbonFootprintTrack.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Connections for read-only transactions: round-robin over the replicas that are reachable and no further
+// behind the primary than maxLag, and the primary when there is none (or the transaction asked for it).
+// Lag is measured with a heartbeat row the primary stamps with its own clock on every check; a replica's lag
+// is how far its replicated copy trails the primary's, to the resolution of the check interval.
+// Replicas start out unusable until their first check.
+// UserManagement routes its reads with a copy of this class (the services build separately); both stamp the same
+// replica_heartbeat table, each under its own source, so a change to the lag check belongs in both.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String READ_BEAT_SQL = "SELECT beat_at FROM replica_heartbeat WHERE source = ?";
+    private static final String WRITE_BEAT_SQL = "INSERT INTO replica_heartbeat (source, beat_at) VALUES (?, CURRENT_TIMESTAMP(6)) " +
+            "ON DUPLICATE KEY UPDATE beat_at = CURRENT_TIMESTAMP(6)";
+
+    private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = -1; // -1 until measured, or while the replica cannot be read
+        private volatile boolean usable;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public boolean isUsable() {
+            return usable;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String source;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // "source" keys this service's heartbeat row, since both services share the schema
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, String source, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.source = source;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    public void start(Duration checkInterval) {
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Sends the rest of the current transaction to the primary. Only takes effect before the transaction's first query.
+    public static void usePrimaryForCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || Boolean.TRUE.equals(primaryOnly.get())) {
+            return;
+        }
+        primaryOnly.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                primaryOnly.remove();
+            }
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(username, password);
+    }
+
+    private Connection connection(String username, String password) throws SQLException {
+        if (!Boolean.TRUE.equals(primaryOnly.get())) {
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.usable) {
+                    continue;
+                }
+                try {
+                    return open(replica.dataSource, username, password);
+                } catch (SQLException e) {
+                    // Out of rotation until the next check reaches it again
+                    replica.usable = false;
+                    log.warn("Replica {} unavailable, reading elsewhere: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+        return open(primary, username, password);
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    // Compare each replica's copy of the heartbeat with the primary's, then stamp a new one
+    public void checkLag() {
+        try {
+            JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+            Timestamp primaryBeat = readBeat(primaryJdbc);
+            for (Replica replica : replicas) {
+                measure(replica, primaryBeat);
+            }
+            primaryJdbc.update(WRITE_BEAT_SQL, source);
+        } catch (DataAccessException e) {
+            log.warn("Replica lag check could not reach the primary: {}", e.getMessage());
+        }
+    }
+
+    private void measure(Replica replica, Timestamp primaryBeat) {
+        boolean wasUsable = replica.usable;
+        try {
+            Timestamp replicaBeat = readBeat(new JdbcTemplate(replica.dataSource));
+            replica.lagMillis = primaryBeat == null ? -1
+                    : replicaBeat == null ? Long.MAX_VALUE
+                    : Math.max(primaryBeat.getTime() - replicaBeat.getTime(), 0);
+        } catch (DataAccessException e) {
+            replica.lagMillis = -1;
+        }
+        replica.usable = replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis;
+        if (wasUsable != replica.usable) {
+            log.info("Replica {} {} (lag {} ms)", replica.name, replica.usable ? "in rotation" : "out of rotation", replica.lagMillis);
+        }
+    }
+
+    private Timestamp readBeat(JdbcTemplate jdbc) {
+        List<Timestamp> beats = jdbc.queryForList(READ_BEAT_SQL, Timestamp.class, source);
+        return beats.isEmpty() ? null : beats.get(0);
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Closing replica {} failed: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+}
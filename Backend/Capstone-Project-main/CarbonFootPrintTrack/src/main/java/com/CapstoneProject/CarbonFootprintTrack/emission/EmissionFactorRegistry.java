@@ -0,0 +1,88 @@
+package com.CapstoneProject.CarbonFootprintTrack.emission;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+import com.CapstoneProject.CarbonFootprintTrack.repository.EmissionFactorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Holds the current EmissionFactorTable and swaps in a new one whenever the emission_factor table changes.
+// Readers take one volatile read per calculation and never block on a reload.
+// Reloads are serialised with a lock rather than synchronized so the JDBC call doesn't pin a virtual thread.
+@Component
+public class EmissionFactorRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(EmissionFactorRegistry.class);
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private EmissionFactorRepository emissionFactorRepository;
+
+    private volatile EmissionFactorTable table = EmissionFactorTable.EMPTY;
+    private List<EmissionFactor> loadedRows; // What the current table was built from
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public EmissionFactorTable current() {
+        return table;
+    }
+
+    // Picks up edits made directly in the database or through another instance. The table is small, so its rows
+    // are compared as a whole: an UPDATE that leaves updated_at alone is noticed as well.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${carbontrack.emission-factors.refresh-interval-ms:60000}",
+            initialDelayString = "${carbontrack.emission-factors.refresh-interval-ms:60000}")
+    public void refresh() {
+        reloadLock.lock();
+        try {
+            List<EmissionFactor> rows = emissionFactorRepository.findAll(BY_ID);
+            if (!rows.equals(loadedRows)) {
+                load(rows);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public void reload() {
+        reloadLock.lock();
+        try {
+            load(emissionFactorRepository.findAll(BY_ID));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void load(List<EmissionFactor> rows) {
+        table = EmissionFactorTable.of(rows);
+        loadedRows = rows;
+        log.info("Loaded {} emission factors", rows.size());
+    }
+
+    public List<EmissionFactor> getAll() {
+        return emissionFactorRepository.findAll();
+    }
+
+    public EmissionFactor save(EmissionFactor factor) {
+        Objects.requireNonNull(factor.getCategory(), "category");
+        factor.setUpdatedAt(LocalDateTime.now());
+        EmissionFactor saved = emissionFactorRepository.save(factor);
+        reload();
+        return saved;
+    }
+
+    public void delete(Long id) {
+        emissionFactorRepository.deleteById(id);
+        reload();
+    }
+}
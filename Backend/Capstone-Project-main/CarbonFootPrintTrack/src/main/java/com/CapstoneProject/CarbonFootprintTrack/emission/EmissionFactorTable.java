@@ -0,0 +1,118 @@
+package com.CapstoneProject.CarbonFootprintTrack.emission;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionCategory;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of the emission_factor table, laid out for allocation-free lookups on the submit path.
+// Slot = region * categories + category ordinal; each slot holds its validFrom days (ascending) and factors.
+// Region 0 is the global scope (rows with no region); a regional miss falls back to it, then to the built-in default.
+public final class EmissionFactorTable {
+
+    public static final int GLOBAL_REGION = 0;
+
+    private static final EmissionCategory[] CATEGORIES = EmissionCategory.values();
+    private static final long[] NO_DAYS = new long[0];
+    private static final double[] NO_FACTORS = new double[0];
+
+    public static final EmissionFactorTable EMPTY = of(List.of());
+
+    private final Map<String, Integer> regions;
+    private final long[][] validFromDays;
+    private final double[][] factors;
+    private final int rows;
+
+    private EmissionFactorTable(Map<String, Integer> regions, long[][] validFromDays, double[][] factors, int rows) {
+        this.regions = regions;
+        this.validFromDays = validFromDays;
+        this.factors = factors;
+        this.rows = rows;
+    }
+
+    public static EmissionFactorTable of(List<EmissionFactor> rows) {
+        Map<String, Integer> regions = new HashMap<>();
+        for (EmissionFactor row : rows) {
+            if (row.getRegion() != null) {
+                regions.putIfAbsent(row.getRegion(), regions.size() + 1);
+            }
+        }
+
+        int slots = (regions.size() + 1) * CATEGORIES.length;
+        List<List<EmissionFactor>> bySlot = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            bySlot.add(new ArrayList<>());
+        }
+        for (EmissionFactor row : rows) {
+            int region = row.getRegion() == null ? GLOBAL_REGION : regions.get(row.getRegion());
+            bySlot.get(region * CATEGORIES.length + row.getCategory().ordinal()).add(row);
+        }
+
+        long[][] validFromDays = new long[slots][];
+        double[][] factors = new double[slots][];
+        for (int slot = 0; slot < slots; slot++) {
+            List<EmissionFactor> entries = bySlot.get(slot);
+            if (entries.isEmpty()) {
+                validFromDays[slot] = NO_DAYS;
+                factors[slot] = NO_FACTORS;
+                continue;
+            }
+            entries.sort(Comparator.comparingLong(EmissionFactorTable::validFromDay));
+            long[] days = new long[entries.size()];
+            double[] values = new double[entries.size()];
+            int n = 0;
+            for (EmissionFactor entry : entries) {
+                long day = validFromDay(entry);
+                // Duplicate start days (possible with NULL regions in MySQL unique keys): the last row wins
+                if (n > 0 && days[n - 1] == day) {
+                    n--;
+                }
+                days[n] = day;
+                values[n] = entry.getFactor();
+                n++;
+            }
+            validFromDays[slot] = Arrays.copyOf(days, n);
+            factors[slot] = Arrays.copyOf(values, n);
+        }
+        return new EmissionFactorTable(Map.copyOf(regions), validFromDays, factors, rows.size());
+    }
+
+    private static long validFromDay(EmissionFactor row) {
+        return row.getValidFrom() == null ? Long.MIN_VALUE : row.getValidFrom().toEpochDay();
+    }
+
+    // Cities are matched case-sensitively, like everywhere else; unknown cities use the global factors
+    public int regionOf(String city) {
+        Integer region = city == null ? null : regions.get(city);
+        return region == null ? GLOBAL_REGION : region;
+    }
+
+    public double factor(EmissionCategory category, int region, long epochDay) {
+        double factor = lookup(region * CATEGORIES.length + category.ordinal(), epochDay);
+        if (Double.isNaN(factor) && region != GLOBAL_REGION) {
+            factor = lookup(category.ordinal(), epochDay);
+        }
+        return Double.isNaN(factor) ? category.getDefaultFactor() : factor;
+    }
+
+    private double lookup(int slot, long epochDay) {
+        long[] days = validFromDays[slot];
+        if (days.length == 0) {
+            return Double.NaN;
+        }
+        int i = Arrays.binarySearch(days, epochDay);
+        if (i < 0) {
+            i = -i - 2; // Latest entry starting before the day
+        }
+        return i < 0 ? Double.NaN : factors[slot][i];
+    }
+
+    public int size() {
+        return rows;
+    }
+}
@@ -0,0 +1,250 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked leaderboard for a single city, kept as an indexable skip list.
+ * Entries are ordered by totalCarbonFootprint descending, ties broken by userId ascending.
+ * Every forward link records how many ranks it skips, so updates, rank lookups and
+ * rank-offset reads are all O(log n). Ranks are 1-based.
+ */
+public class CityLeaderboard {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private static final class Node {
+        final leaderBoard entry;
+        final Node[] next;
+        final int[] span;
+
+        Node(leaderBoard entry, int level) {
+            this.entry = entry;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Map<Long, Node> byUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+    private int size;
+    private volatile long version; // Bumped by every change, so readers can skip unchanged cities
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // Insert the entry, or move it to its new position if the user is already ranked.
+    // The entry is copied so later changes to the caller's object do not corrupt the ordering.
+    public void upsert(leaderBoard entry) {
+        leaderBoard copy = new leaderBoard(entry.getUserId(), entry.getName(), entry.getTodayDate(),
+                entry.getCity(), entry.getTotalCarbonFootprint(), entry.getVersion());
+        lock.writeLock().lock();
+        try {
+            Node existing = byUser.get(copy.getUserId());
+            if (existing != null) {
+                delete(existing);
+            }
+            byUser.put(copy.getUserId(), insert(copy));
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Node node = byUser.remove(userId);
+            if (node == null) {
+                return false;
+            }
+            delete(node);
+            version++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 1-based rank of the user, or 0 when the user is not on this leaderboard
+    public long rankOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Node target = byUser.get(userId);
+            if (target == null) {
+                return 0;
+            }
+            long rank = 0;
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && compare(x.next[i].entry, target.entry) <= 0) {
+                    rank += x.span[i];
+                    x = x.next[i];
+                }
+                if (x == target) {
+                    return rank;
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to "limit" entries starting at 0-based position "offset"
+    public List<RankedEntry> range(long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedEntry> result = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+            if (offset < 0 || offset >= size || limit <= 0) {
+                return result;
+            }
+            long rank = offset + 1;
+            Node x = nodeAt(rank);
+            while (x != null && result.size() < limit) {
+                result.add(new RankedEntry(rank++, x.entry));
+                x = x.next[0];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The user's entry with up to "radius" entries either side, or an empty list if the user is not ranked
+    public List<RankedEntry> around(Long userId, int radius) {
+        long rank = rankOf(userId);
+        if (rank == 0) {
+            return new ArrayList<>();
+        }
+        long offset = Math.max(0, rank - 1 - radius);
+        return range(offset, (int) (rank - 1 - offset) + radius + 1);
+    }
+
+    private Node nodeAt(long rank) {
+        long traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private Node insert(leaderBoard entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i].entry, entry) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(entry, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i].entry, node.entry) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private static int compare(leaderBoard a, leaderBoard b) {
+        int byFootprint = Double.compare(b.getTotalCarbonFootprint(), a.getTotalCarbonFootprint());
+        return byFootprint != 0 ? byFootprint : Long.compare(a.getUserId(), b.getUserId());
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    public static final class RankedEntry {
+        private final long rank;
+        private final leaderBoard entry;
+
+        RankedEntry(long rank, leaderBoard entry) {
+            this.rank = rank;
+            this.entry = entry;
+        }
+
+        public long getRank() {
+            return rank;
+        }
+
+        public leaderBoard getEntry() {
+            return entry;
+        }
+    }
+}
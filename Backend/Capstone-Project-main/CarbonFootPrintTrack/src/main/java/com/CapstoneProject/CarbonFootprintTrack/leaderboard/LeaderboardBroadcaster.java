@@ -0,0 +1,295 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.CityNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.LeaderBoardDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.LeaderBoardSnapshotDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.RankedLeaderBoardDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pushes live top-N leaderboards to SSE subscribers. Subscribers of the same city and N share one group:
+// on every tick a group whose city changed re-reads its top N from the index once, diffs it against what
+// the group last sent and hands the same serialized delta to each subscriber. Bursts of submissions
+// between ticks therefore reach clients as a single diff.
+// Neither the tick nor subscribe() writes to a connection: each subscriber has a small bounded queue that
+// a writer pool drains, so a slow client delays only itself. A subscriber whose queue is full when the
+// next event arrives has fallen too far behind and is disconnected; it can reconnect for a fresh snapshot.
+@Component
+public class LeaderboardBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardBroadcaster.class);
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final ObjectMapper objectMapper;
+    private final int maxTop;
+    private final long emitterTimeoutMs;
+    private final long heartbeatIntervalNanos;
+    private final int subscriberQueueSize;
+    private final ThreadPoolExecutor writers;
+
+    private final Map<String, TopNGroup> groups = new ConcurrentHashMap<>();
+    private long lastHeartbeat = System.nanoTime();
+
+    public LeaderboardBroadcaster(LeaderboardIndex leaderboardIndex,
+                                  ObjectMapper objectMapper,
+                                  @Value("${carbontrack.leaderboard.stream.max-top:100}") int maxTop,
+                                  @Value("${carbontrack.leaderboard.stream.timeout:30m}") Duration emitterTimeout,
+                                  @Value("${carbontrack.leaderboard.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                  @Value("${carbontrack.leaderboard.stream.subscriber-queue-size:8}") int subscriberQueueSize,
+                                  @Value("${carbontrack.leaderboard.stream.writer-threads:8}") int writerThreads,
+                                  MeterRegistry meterRegistry) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.objectMapper = objectMapper;
+        this.maxTop = maxTop;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.subscriberQueueSize = subscriberQueueSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "leaderboard-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("leaderboard.stream.subscribers", groups,
+                        g -> g.values().stream().mapToInt(group -> group.subscribers.size()).sum())
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, writers, "leaderboard.stream.writers");
+    }
+
+    // Opens a stream whose first "snapshot" event is the group's current top N; "delta" events follow
+    public SseEmitter subscribe(String city, int top) {
+        return subscribe(city, top, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(String city, int top, SseEmitter emitter) {
+        CityLeaderboard leaderboard = leaderboardIndex.city(city);
+        if (leaderboard == null || leaderboard.size() == 0) {
+            throw new CityNotFoundException(city);
+        }
+        int n = Math.min(Math.max(top, 1), maxTop);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        TopNGroup group;
+        while (true) {
+            group = groups.computeIfAbsent(city + '\n' + n, key -> new TopNGroup(key, city, n));
+            group.lock.lock();
+            try {
+                // Lost a race with the tick that retired an empty group; join its replacement instead
+                if (group.closed) {
+                    continue;
+                }
+                if (group.version < 0) {
+                    group.version = leaderboard.version();
+                    group.last = topN(leaderboard, n);
+                }
+                // Queued under the lock, so the snapshot is the first event and no delta is missed
+                subscriber.offer(SseEmitter.event().name("snapshot")
+                        .data(toJson(new LeaderBoardSnapshotDto(city, group.last))).build());
+                group.subscribers.add(subscriber);
+            } finally {
+                group.lock.unlock();
+            }
+            break;
+        }
+
+        Set<Subscriber> subscribers = group.subscribers;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${carbontrack.leaderboard.stream.interval-ms:1000}")
+    public void publishChanges() {
+        long now = System.nanoTime();
+        boolean heartbeat = now - lastHeartbeat >= heartbeatIntervalNanos;
+        if (heartbeat) {
+            lastHeartbeat = now;
+        }
+        for (TopNGroup group : groups.values()) {
+            group.lock.lock();
+            try {
+                if (group.subscribers.isEmpty()) {
+                    group.closed = true;
+                    groups.remove(group.key, group);
+                    continue;
+                }
+                publish(group, heartbeat);
+            } finally {
+                group.lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private void publish(TopNGroup group, boolean heartbeat) {
+        CityLeaderboard leaderboard = leaderboardIndex.city(group.city);
+        long version = leaderboard == null ? 0 : leaderboard.version();
+        if (version != group.version) {
+            // Read the version first: a change racing with this read is picked up again next tick
+            List<RankedLeaderBoardDto> next = leaderboard == null ? List.of() : topN(leaderboard, group.n);
+            LeaderBoardDeltaDto delta = diff(group.last, next);
+            group.version = version;
+            group.last = next;
+            if (!delta.isEmpty()) {
+                offer(group, SseEmitter.event().name("delta").data(toJson(delta)).build());
+                return;
+            }
+        }
+        if (heartbeat) {
+            // Keeps idle connections open through proxies and surfaces clients that went away
+            offer(group, SseEmitter.event().comment("keep-alive").build());
+        }
+    }
+
+    // The event is built once; SseEventBuilder.build() is not repeatable, the built parts are
+    private void offer(TopNGroup group, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : group.subscribers) {
+            if (!subscriber.offer(event)) {
+                group.subscribers.remove(subscriber);
+                log.debug("Dropped leaderboard subscriber for {}: {} events behind", group.city, subscriberQueueSize);
+            }
+        }
+    }
+
+    static LeaderBoardDeltaDto diff(List<RankedLeaderBoardDto> previous, List<RankedLeaderBoardDto> next) {
+        Map<Long, RankedLeaderBoardDto> before = new HashMap<>(previous.size() * 2);
+        for (RankedLeaderBoardDto entry : previous) {
+            before.put(entry.getUserId(), entry);
+        }
+        List<RankedLeaderBoardDto> changed = new ArrayList<>();
+        Set<Long> present = new HashSet<>(next.size() * 2);
+        for (RankedLeaderBoardDto entry : next) {
+            present.add(entry.getUserId());
+            if (!entry.equals(before.get(entry.getUserId()))) {
+                changed.add(entry);
+            }
+        }
+        List<Long> removed = new ArrayList<>();
+        for (RankedLeaderBoardDto entry : previous) {
+            if (!present.contains(entry.getUserId())) {
+                removed.add(entry.getUserId());
+            }
+        }
+        return new LeaderBoardDeltaDto(changed, removed);
+    }
+
+    private static List<RankedLeaderBoardDto> topN(CityLeaderboard leaderboard, int n) {
+        List<RankedLeaderBoardDto> entries = new ArrayList<>(n);
+        for (CityLeaderboard.RankedEntry ranked : leaderboard.range(0, n)) {
+            entries.add(new RankedLeaderBoardDto(ranked.getRank(), ranked.getEntry().getUserId(),
+                    ranked.getEntry().getName(), ranked.getEntry().getCity(), ranked.getEntry().getTotalCarbonFootprint()));
+        }
+        return entries;
+    }
+
+    // Serialized once per group so fan-out costs a write per subscriber, not a serialization
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class TopNGroup {
+        final String key;
+        final String city;
+        final int n;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final ReentrantLock lock = new ReentrantLock();
+        List<RankedLeaderBoardDto> last = List.of();
+        long version = -1;
+        boolean closed;
+
+        TopNGroup(String key, String city, int n) {
+            this.key = key;
+            this.city = city;
+            this.n = n;
+        }
+    }
+
+    // One connection's pending events. At most one writer drains it at a time, in queue order.
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayBlockingQueue<>(subscriberQueueSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Never blocks; false (and the connection is closed) when the subscriber is too far behind
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (dropped) {
+                return false;
+            }
+            if (!pending.offer(event)) {
+                dropped = true;
+                pending.clear();
+                writers.execute(emitter::complete);
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!dropped && (event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The container reports the failure through onError/onCompletion, which unsubscribe
+                        dropped = true;
+                        log.debug("Leaderboard subscriber went away: {}", e.getMessage());
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared is drained here
+            } while (!dropped && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
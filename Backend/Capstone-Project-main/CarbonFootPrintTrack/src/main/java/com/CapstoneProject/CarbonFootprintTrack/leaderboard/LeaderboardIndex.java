@@ -0,0 +1,130 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.projection.LeaderboardVersionView;
+import com.CapstoneProject.CarbonFootprintTrack.repository.LeaderboardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process, per-city ranking of the leaderboard table.
+// Each instance keeps its own copy, warmed from the database at startup and updated after every committed submission.
+// Rows changed by other instances are picked up by sync, which re-reads every row whose version moved.
+@Component
+public class LeaderboardIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardIndex.class);
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Value("${carbontrack.leaderboard.warmup-page-size:5000}")
+    private int warmupPageSize;
+
+    private final Map<String, CityLeaderboard> cities = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+
+    // Where a user is ranked and the version of the row that put them there
+    private record Placement(String city, long version) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        PageRequest request = PageRequest.of(0, warmupPageSize, Sort.by("userId"));
+        long loaded = 0;
+        Page<leaderBoard> page;
+        do {
+            page = leaderboardRepository.findAll(request);
+            page.forEach(this::update);
+            loaded += page.getNumberOfElements();
+            request = request.next();
+        } while (page.hasNext());
+        log.info("Leaderboard index warmed with {} entries across {} cities", loaded, cities.size());
+    }
+
+    // Converges with submissions and imports committed on other instances. Only ids and versions are scanned;
+    // full rows are loaded just for the users whose version is ahead of the applied one. Leaderboard rows are
+    // never deleted, so nothing has to be removed here.
+    @Scheduled(fixedDelayString = "${carbontrack.leaderboard.sync-interval-ms:5000}",
+            initialDelayString = "${carbontrack.leaderboard.sync-interval-ms:5000}")
+    public void sync() {
+        PageRequest request = PageRequest.of(0, warmupPageSize);
+        List<Long> changed = new ArrayList<>();
+        long afterId = Long.MIN_VALUE;
+        List<LeaderboardVersionView> page;
+        do {
+            page = leaderboardRepository.findVersionsAfter(afterId, request);
+            for (LeaderboardVersionView row : page) {
+                Placement placement = placements.get(row.getUserId());
+                long version = row.getVersion() != null ? row.getVersion() : 0;
+                if (placement == null || placement.version() < version) {
+                    changed.add(row.getUserId());
+                }
+                afterId = row.getUserId();
+            }
+        } while (page.size() == warmupPageSize);
+
+        for (int from = 0; from < changed.size(); from += warmupPageSize) {
+            leaderboardRepository.findAllById(changed.subList(from, Math.min(from + warmupPageSize, changed.size())))
+                    .forEach(this::update);
+        }
+        if (!changed.isEmpty()) {
+            log.debug("Leaderboard index synced {} entries changed elsewhere", changed.size());
+        }
+    }
+
+    // Cities are matched case-sensitively, exactly as the leaderboard table stores them
+    public CityLeaderboard city(String city) {
+        return cities.get(city);
+    }
+
+    // Updates for one user are applied one at a time, and one older than the row already applied is ignored:
+    // commit callbacks of two submissions can run in either order, and warm-up can read a row that a
+    // submission has since changed.
+    public void update(leaderBoard entry) {
+        long version = entry.getVersion() != null ? entry.getVersion() : 0;
+        placements.compute(entry.getUserId(), (userId, current) -> {
+            if (current != null && current.version() > version) {
+                return current;
+            }
+            if (current != null && !current.city().equals(entry.getCity())) {
+                CityLeaderboard previous = cities.get(current.city());
+                if (previous != null) {
+                    previous.remove(userId);
+                }
+            }
+            cities.computeIfAbsent(entry.getCity(), c -> new CityLeaderboard()).upsert(entry);
+            return new Placement(entry.getCity(), version);
+        });
+    }
+
+    // Apply the update once the surrounding transaction commits, so a rolled-back submission never shows up in ranks.
+    // By then the flush has set the entry's version to the committed one.
+    public void updateAfterCommit(leaderBoard entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(entry);
+            }
+        });
+    }
+}
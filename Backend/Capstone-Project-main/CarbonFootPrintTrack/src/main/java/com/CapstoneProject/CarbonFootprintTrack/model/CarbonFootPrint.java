@@ -15,7 +15,7 @@ import java.time.LocalDate;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "carbondetails")
+@Table(name = "carbondetails") // Indexes are defined in the db/migration scripts
 public class CarbonFootPrint {
 
     @Id
@@ -0,0 +1,26 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One user's carbondetails rows for a month past the retention horizon, summed into a single row
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "carbondetails_monthly")
+public class CompactedFootprint {
+
+    @EmbeddedId
+    private CompactedFootprintId id;
+
+    private double transportation;
+    private double electricity;
+    private double wastage;
+    private double carbonFootprint;
+    private long submissions; // Number of carbondetails rows compacted into this month
+}
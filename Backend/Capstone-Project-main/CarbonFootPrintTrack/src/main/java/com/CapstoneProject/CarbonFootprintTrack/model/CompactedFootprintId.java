@@ -0,0 +1,18 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactedFootprintId implements Serializable {
+    private Long userId;
+    private LocalDate monthStart; // First day of the compacted month
+}
@@ -0,0 +1,39 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+// Everything that has an emission factor. The transport entries double as the parsed transport mode.
+public enum EmissionCategory {
+    CAR("car", 0.2),
+    ELECTRIC_CAR("electric car", 0.1),
+    TRAIN("train", 0.05),
+    FLIGHT("flight", 0.3),
+    BUS("bus", 0.15),
+    OTHER_TRANSPORT(null, 0.2),
+    WASTE(null, 0.5),
+    ELECTRICITY(null, 0.7);
+
+    private static final EmissionCategory[] VALUES = values();
+
+    private final String mode; // Transport mode name as sent by the frontend, or null
+    private final double defaultFactor; // Used when the emission_factor table has no matching row
+
+    EmissionCategory(String mode, double defaultFactor) {
+        this.mode = mode;
+        this.defaultFactor = defaultFactor;
+    }
+
+    public double getDefaultFactor() {
+        return defaultFactor;
+    }
+
+    // Case-insensitive match on the transport mode without allocating; unknown modes are OTHER_TRANSPORT
+    public static EmissionCategory fromTransportMode(String mode) {
+        if (mode != null) {
+            for (EmissionCategory category : VALUES) {
+                if (category.mode != null && category.mode.equalsIgnoreCase(mode)) {
+                    return category;
+                }
+            }
+        }
+        return OTHER_TRANSPORT;
+    }
+}
@@ -0,0 +1,44 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One emission factor, optionally scoped to a region (city) and to a start date.
+// A null region applies everywhere; a null validFrom applies from the beginning of time.
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "emission_factor",
+        uniqueConstraints = @UniqueConstraint(name = "uk_emission_factor", columnNames = {"category", "region", "validFrom"}))
+public class EmissionFactor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmissionCategory category;
+
+    private String region;
+
+    private LocalDate validFrom;
+
+    private double factor;
+
+    private LocalDateTime updatedAt;
+}
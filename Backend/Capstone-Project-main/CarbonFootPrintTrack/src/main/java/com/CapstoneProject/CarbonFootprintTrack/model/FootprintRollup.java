@@ -0,0 +1,38 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pre-aggregated carbondetails totals for one user over one day, week or month
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "carbon_rollup")
+public class FootprintRollup {
+
+    @EmbeddedId
+    private FootprintRollupId id;
+
+    private double transportation;
+    private double electricity;
+    private double wastage;
+    private double carbonFootprint;
+    private long submissions; // Number of carbondetails rows folded into this bucket
+
+    public FootprintRollup(FootprintRollupId id) {
+        this.id = id;
+    }
+
+    public void add(CarbonFootPrint footprint) {
+        transportation += footprint.getTransportation();
+        electricity += footprint.getElectricity();
+        wastage += footprint.getWastage();
+        carbonFootprint += footprint.getCarbon_footprint();
+        submissions++;
+    }
+}
@@ -0,0 +1,26 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class FootprintRollupId implements Serializable {
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupPeriod period;
+
+    private LocalDate periodStart; // First day of the day/week/month bucket
+}
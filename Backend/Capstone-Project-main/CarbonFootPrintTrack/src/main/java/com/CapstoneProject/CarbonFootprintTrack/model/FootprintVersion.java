@@ -0,0 +1,22 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-user change counter for carbondetails, bumped in the same transaction as every write to a user's history.
+// Backs the ETags of the history endpoints; users without a row are at version 0.
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "footprint_version")
+public class FootprintVersion {
+    @Id
+    private Long userId;
+
+    private long version;
+}
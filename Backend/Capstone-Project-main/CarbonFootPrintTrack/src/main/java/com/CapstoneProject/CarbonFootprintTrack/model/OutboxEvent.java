@@ -0,0 +1,64 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Side effect of a submission, written in the submission's transaction and delivered later by OutboxDispatcher
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_event") // Indexes are defined in the db/migration scripts
+public class OutboxEvent {
+
+    public static final String USER_FOOTPRINT_DELTA = "USER_FOOTPRINT_DELTA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String eventType;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String idempotencyKey; // Sent with the event so the receiver can drop redeliveries
+
+    private Long userId;
+    private double delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private OutboxStatus status;
+
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public static OutboxEvent userFootprintDelta(Long userId, double delta) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(USER_FOOTPRINT_DELTA);
+        event.setIdempotencyKey(UUID.randomUUID().toString());
+        event.setUserId(userId);
+        event.setDelta(delta);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return event;
+    }
+}
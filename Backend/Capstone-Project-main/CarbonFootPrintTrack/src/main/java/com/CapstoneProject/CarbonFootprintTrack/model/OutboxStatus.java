@@ -0,0 +1,7 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,23 @@
+package com.CapstoneProject.CarbonFootprintTrack.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum RollupPeriod {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // First day of the bucket this date falls into (weeks start on Monday)
+    public LocalDate bucketStart(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+}
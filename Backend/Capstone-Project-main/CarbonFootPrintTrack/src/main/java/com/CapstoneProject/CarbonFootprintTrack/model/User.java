@@ -1,51 +1,34 @@
 package com.CapstoneProject.CarbonFootprintTrack.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
 
 
 import java.sql.Timestamp;
 
 
+// UserManagement's view of a user as returned by UserClient. Not persisted here: the users table belongs to
+// UserManagement and is created by its migrations.
 @Data
-@Entity
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "users")
 public class User {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "Name", nullable = false)
     private String name;
 
-    @Column(name = "Email", nullable = false, unique = true)
     private String email;
 
-    @Column(name = "Password", nullable = false)
     private String password;
 
-    @Column(name = "City", nullable = false)
     private String city;
 
-    @Column(name = "TotalCarbonFootprint", nullable = false)
     private double totalCarbonFootprint;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "Role")
     private Role role;
 
-    @CreationTimestamp
-    @Column(name = "CreatedAt")
     private Timestamp createdAt;
 
-    @UpdateTimestamp
-    @Column(name = "UpdatedAt")
     private Timestamp updatedAt;
 
 
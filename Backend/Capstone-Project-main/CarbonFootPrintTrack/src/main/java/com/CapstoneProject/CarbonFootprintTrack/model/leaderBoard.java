@@ -1,8 +1,10 @@
 package com.CapstoneProject.CarbonFootprintTrack.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,4 +27,13 @@ public class leaderBoard {
     private String city;
 
     private double totalCarbonFootprint; // Updated field name to camelCase
+
+    // Null until first saved, then bumped on every update; orders the updates LeaderboardIndex receives
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    public leaderBoard(Long userId, String name, LocalDate todayDate, String city, double totalCarbonFootprint) {
+        this(userId, name, todayDate, city, totalCarbonFootprint, null);
+    }
 }
@@ -0,0 +1,14 @@
+package com.CapstoneProject.CarbonFootprintTrack.projection;
+
+import java.time.LocalDate;
+
+// Per-category columns of a carbondetails row, read once for the breakdown endpoint
+public interface CategoryFootprintView {
+    LocalDate getDate();
+
+    double getElectricity();
+
+    double getWastage();
+
+    double getTransportation();
+}
@@ -0,0 +1,13 @@
+package com.CapstoneProject.CarbonFootprintTrack.projection;
+
+import java.time.LocalDate;
+
+// Column-only view of a carbondetails row used by the dashboard query
+public interface DailyFootprintView {
+    // carbondetails id; null for a compacted month
+    Long getId();
+
+    LocalDate getDate();
+
+    double getTotalCarbonFootprint();
+}
@@ -0,0 +1,8 @@
+package com.CapstoneProject.CarbonFootprintTrack.projection;
+
+// Key and version of a leaderboard row, enough to tell whether the in-memory index has the latest copy
+public interface LeaderboardVersionView {
+    Long getUserId();
+
+    Long getVersion();
+}
@@ -0,0 +1,35 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.StringJoiner;
+
+// The pieces of an INSERT ... ON DUPLICATE KEY UPDATE that adds the incoming row's columns to the existing row.
+// MySQL 8.0.20+ deprecates VALUES(column) in that clause, so on MySQL the incoming row is named by the alias "new"
+// (a row alias after VALUES, or the alias of a derived table). H2's MySQL mode, which the tests run on, accepts
+// neither reference and keeps VALUES(column).
+final class AdditiveUpsert {
+
+    private AdditiveUpsert() {
+    }
+
+    static boolean isMysql(JdbcTemplate jdbcTemplate) {
+        return "MySQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    // Goes right after the VALUES list of a single-row insert
+    static String rowAlias(boolean mysql) {
+        return mysql ? " AS new" : "";
+    }
+
+    static String onDuplicateAdd(boolean mysql, String table, String... columns) {
+        StringJoiner updates = new StringJoiner(", ", " ON DUPLICATE KEY UPDATE ", "");
+        for (String column : columns) {
+            updates.add(column + " = " + table + "." + column + " + "
+                    + (mysql ? "new." + column : "VALUES(" + column + ")"));
+        }
+        return updates.toString();
+    }
+}
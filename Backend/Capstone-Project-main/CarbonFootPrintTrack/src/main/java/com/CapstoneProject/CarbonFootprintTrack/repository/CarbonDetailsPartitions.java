@@ -0,0 +1,86 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Partition DDL for the monthly RANGE COLUMNS (today_date) layout of db/vendor/mysql/V4: one partition per month,
+// named pYYYYMM, in front of a MAXVALUE catch-all that new months are split off.
+// Every method is a no-op where carbondetails is not partitioned (any database other than MySQL).
+@Repository
+public class CarbonDetailsPartitions {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    // lessThan is null for the MAXVALUE partition
+    private record Partition(String name, LocalDate lessThan) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean mysql;
+
+    // Split partitions for every month up to and including "until" off the catch-all; returns how many were added
+    public int createUntil(LocalDate until) {
+        List<Partition> partitions = partitions();
+        if (partitions.size() < 2 || partitions.get(partitions.size() - 1).lessThan() != null) {
+            return 0;
+        }
+        String catchAll = partitions.get(partitions.size() - 1).name();
+        LocalDate next = partitions.get(partitions.size() - 2).lessThan();
+
+        StringJoiner months = new StringJoiner(", ");
+        int added = 0;
+        for (; !next.isAfter(until); next = next.plusMonths(1), added++) {
+            months.add("PARTITION " + next.format(PARTITION_NAME) + " VALUES LESS THAN ('" + next.plusMonths(1) + "')");
+        }
+        if (added > 0) {
+            months.add("PARTITION " + catchAll + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE carbondetails REORGANIZE PARTITION " + catchAll + " INTO (" + months + ")");
+        }
+        return added;
+    }
+
+    // Drop the partitions that only hold dates before the given day; returns their names
+    public List<String> dropBefore(LocalDate date) {
+        List<String> dropped = new ArrayList<>();
+        for (Partition partition : partitions()) {
+            if (partition.lessThan() != null && !partition.lessThan().isAfter(date)) {
+                dropped.add(partition.name());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE carbondetails DROP PARTITION " + String.join(", ", dropped));
+        }
+        return dropped;
+    }
+
+    private List<Partition> partitions() {
+        if (!isMysql()) {
+            return List.of();
+        }
+        // RANGE COLUMNS bounds come back quoted, e.g. '2026-11-01'
+        return jdbcTemplate.query("SELECT partition_name, partition_description FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'carbondetails' AND partition_name IS NOT NULL " +
+                        "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> {
+                    String bound = rs.getString(2);
+                    return new Partition(rs.getString(1),
+                            "MAXVALUE".equals(bound) ? null : LocalDate.parse(bound.replace("'", "")));
+                });
+    }
+
+    private boolean isMysql() {
+        if (mysql == null) {
+            mysql = AdditiveUpsert.isMysql(jdbcTemplate);
+        }
+        return mysql;
+    }
+}
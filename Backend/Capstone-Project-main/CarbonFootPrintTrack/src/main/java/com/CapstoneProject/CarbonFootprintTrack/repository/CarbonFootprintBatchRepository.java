@@ -0,0 +1,40 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+// Plain-JDBC batch insert for carbondetails. The entity uses IDENTITY ids, which stops Hibernate from
+// batching inserts, so bulk imports go through JdbcTemplate instead (with rewriteBatchedStatements on MySQL).
+@Repository
+public class CarbonFootprintBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO carbondetails " +
+            "(user_id, name, today_date, city, transportation, electricity, wastage, carbon_footprint, total_carbon_footprint) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${carbontrack.bulk.jdbc-batch-size:1000}")
+    private int batchSize;
+
+    public void insertAll(List<CarbonFootPrint> footprints) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, footprints, batchSize, (ps, footprint) -> {
+            ps.setLong(1, footprint.getUserId());
+            ps.setString(2, footprint.getName());
+            ps.setDate(3, Date.valueOf(footprint.getToday_date()));
+            ps.setString(4, footprint.getCity());
+            ps.setDouble(5, footprint.getTransportation());
+            ps.setDouble(6, footprint.getElectricity());
+            ps.setDouble(7, footprint.getWastage());
+            ps.setDouble(8, footprint.getCarbon_footprint());
+            ps.setDouble(9, footprint.getTotalCarbonFootprint());
+        });
+    }
+}
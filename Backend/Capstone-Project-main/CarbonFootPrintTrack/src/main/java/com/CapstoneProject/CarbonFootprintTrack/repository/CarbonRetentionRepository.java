@@ -0,0 +1,101 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+// Set-based statements behind carbondetails compaction: the watermark in carbondetails_retention,
+// folding carbondetails rows into carbondetails_monthly, and deleting compacted rows.
+@Repository
+public class CarbonRetentionRepository {
+
+    private static final String WATERMARK_SQL = "SELECT compacted_before FROM carbondetails_retention WHERE id = 1";
+
+    private static final String[] SUMMED = {"transportation", "electricity", "wastage", "carbon_footprint", "submissions"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Statements statements;
+
+    // Both add to an existing month rather than replacing it, so late rows can be folded into a compacted month.
+    // Rows without a user are left out: no history can show them, and the purge discards them with the month.
+    private record Statements(String compactMonth, String add) {
+        static Statements of(boolean mysql) {
+            String upsert = AdditiveUpsert.onDuplicateAdd(mysql, "carbondetails_monthly", SUMMED);
+            return new Statements(
+                    "INSERT INTO carbondetails_monthly " +
+                            "(user_id, month_start, transportation, electricity, wastage, carbon_footprint, submissions) " +
+                            "SELECT * FROM (SELECT user_id, CAST(? AS DATE) AS month_start, SUM(transportation) AS transportation, " +
+                            "SUM(electricity) AS electricity, SUM(wastage) AS wastage, " +
+                            "SUM(carbon_footprint) AS carbon_footprint, COUNT(*) AS submissions " +
+                            "FROM carbondetails WHERE today_date >= ? AND today_date < ? AND user_id IS NOT NULL " +
+                            "GROUP BY user_id) AS new" + upsert,
+                    "INSERT INTO carbondetails_monthly " +
+                            "(user_id, month_start, transportation, electricity, wastage, carbon_footprint, submissions) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, 1)" + AdditiveUpsert.rowAlias(mysql) + upsert);
+        }
+    }
+
+    private Statements statements() {
+        if (statements == null) {
+            statements = Statements.of(AdditiveUpsert.isMysql(jdbcTemplate));
+        }
+        return statements;
+    }
+
+    // Every month before this date has been compacted into carbondetails_monthly
+    public LocalDate findCompactedBefore() {
+        return jdbcTemplate.queryForObject(WATERMARK_SQL, LocalDate.class);
+    }
+
+    // Same, holding the row lock until the caller's transaction ends, so the watermark cannot move meanwhile
+    public LocalDate lockCompactedBefore() {
+        return jdbcTemplate.queryForObject(WATERMARK_SQL + " FOR UPDATE", LocalDate.class);
+    }
+
+    public void setCompactedBefore(LocalDate date) {
+        jdbcTemplate.update("UPDATE carbondetails_retention SET compacted_before = ? WHERE id = 1", Date.valueOf(date));
+    }
+
+    // Oldest carbondetails date in [from, to), or null if there is none
+    public LocalDate findOldestDate(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject("SELECT MIN(today_date) FROM carbondetails WHERE today_date >= ? AND today_date < ?",
+                LocalDate.class, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // Sum every user's carbondetails rows of the month starting at monthStart into carbondetails_monthly
+    public int compactMonth(LocalDate monthStart) {
+        Date start = Date.valueOf(monthStart);
+        return jdbcTemplate.update(statements().compactMonth(), start, start, Date.valueOf(monthStart.plusMonths(1)));
+    }
+
+    // carbondetails rows of the month that have no user, and so are not compacted
+    public long countWithoutUser(LocalDate monthStart) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carbondetails " +
+                        "WHERE today_date >= ? AND today_date < ? AND user_id IS NULL",
+                Long.class, Date.valueOf(monthStart), Date.valueOf(monthStart.plusMonths(1)));
+    }
+
+    // Fold rows dated in already-compacted months straight into their monthly summaries
+    public void addToCompacted(List<CarbonFootPrint> footprints) {
+        jdbcTemplate.batchUpdate(statements().add(), footprints, footprints.size(), (ps, footprint) -> {
+            ps.setLong(1, footprint.getUserId());
+            ps.setDate(2, Date.valueOf(footprint.getToday_date().withDayOfMonth(1)));
+            ps.setDouble(3, footprint.getTransportation());
+            ps.setDouble(4, footprint.getElectricity());
+            ps.setDouble(5, footprint.getWastage());
+            ps.setDouble(6, footprint.getCarbon_footprint());
+        });
+    }
+
+    // Delete up to limit carbondetails rows dated before the given day; returns the number deleted
+    public int deleteBefore(LocalDate date, int limit) {
+        return jdbcTemplate.update("DELETE FROM carbondetails WHERE today_date < ? LIMIT ?", Date.valueOf(date), limit);
+    }
+}
@@ -1,16 +1,63 @@
 package com.CapstoneProject.CarbonFootprintTrack.repository;
 
 import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.projection.CategoryFootprintView;
+import com.CapstoneProject.CarbonFootprintTrack.projection.DailyFootprintView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CarbonTrackRepository extends JpaRepository<CarbonFootPrint,Long> {
     List<CarbonFootPrint> findByUserId(Long id);
 
+    boolean existsByUserId(Long userId);
+
+    // Newest-first page of a user's daily totals from "from" on, served from idx_carbondetails_user_date_cover alone.
+    // Ties on the date are ordered by id, so (date, id) is a unique keyset cursor.
+    @Query("SELECT c.id AS id, c.today_date AS date, c.carbon_footprint AS totalCarbonFootprint FROM CarbonFootPrint c " +
+            "WHERE c.userId = :userId AND c.today_date >= :from ORDER BY c.today_date DESC, c.id DESC")
+    List<DailyFootprintView> findLatestByUserId(@Param("userId") Long userId,
+                                                @Param("from") LocalDate from,
+                                                Pageable pageable);
+
+    // Keyset continuation of findLatestByUserId: only rows after (before, beforeId) in that order
+    @Query("SELECT c.id AS id, c.today_date AS date, c.carbon_footprint AS totalCarbonFootprint FROM CarbonFootPrint c " +
+            "WHERE c.userId = :userId AND c.today_date >= :from " +
+            "AND (c.today_date < :before OR (c.today_date = :before AND c.id < :beforeId)) " +
+            "ORDER BY c.today_date DESC, c.id DESC")
+    List<DailyFootprintView> findLatestByUserIdBefore(@Param("userId") Long userId,
+                                                      @Param("from") LocalDate from,
+                                                      @Param("before") LocalDate before,
+                                                      @Param("beforeId") Long beforeId,
+                                                      Pageable pageable);
+
+    // Category columns for a user's history within [from, to], oldest first
+    @Query("SELECT c.today_date AS date, c.electricity AS electricity, c.wastage AS wastage, c.transportation AS transportation " +
+            "FROM CarbonFootPrint c WHERE c.userId = :userId AND c.today_date BETWEEN :from AND :to ORDER BY c.today_date ASC")
+    List<CategoryFootprintView> findCategoriesByUserId(@Param("userId") Long userId,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+    // Next user ids after afterId, ascending, for batch jobs that walk the table user by user
+    @Query("SELECT DISTINCT c.userId FROM CarbonFootPrint c WHERE c.userId > :afterId ORDER BY c.userId ASC")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // The users' rows from "from" on, locked until the transaction ends: a submission for one of them
+    // waits until then instead of slipping in between reading the rows and writing what is derived from them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CarbonFootPrint c WHERE c.userId IN :userIds AND c.today_date >= :from")
+    List<CarbonFootPrint> lockByUserIdsFrom(@Param("userIds") Collection<Long> userIds, @Param("from") LocalDate from);
+
    // @Query("SELECT c FROM CarbonFootPrint c WHERE c.city = :city AND c.today_date = (SELECT MAX(cf.today_date) FROM CarbonFootPrint cf WHERE cf.userId = c.userId) ORDER BY c.userId ASC")
    // @Query("SELECT c FROM CarbonFootPrint c WHERE c.city = :city")
     //List<CarbonFootPrint> findAllByCity(String city);
@@ -0,0 +1,40 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprint;
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprintId;
+import com.CapstoneProject.CarbonFootprintTrack.projection.CategoryFootprintView;
+import com.CapstoneProject.CarbonFootprintTrack.projection.DailyFootprintView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// History reads over carbondetails_monthly, in the shape of the matching CarbonTrackRepository queries:
+// each compacted month is one entry dated on its first day. All are primary-key range seeks.
+@Repository
+public interface CompactedFootprintRepository extends JpaRepository<CompactedFootprint, CompactedFootprintId> {
+
+    // Newest-first compacted months strictly before the cursor
+    @Query("SELECT c.id.monthStart AS date, c.carbonFootprint AS totalCarbonFootprint FROM CompactedFootprint c " +
+            "WHERE c.id.userId = :userId AND c.id.monthStart < :before ORDER BY c.id.monthStart DESC")
+    List<DailyFootprintView> findLatestByUserIdBefore(@Param("userId") Long userId,
+                                                      @Param("before") LocalDate before,
+                                                      Pageable pageable);
+
+    // Category columns for compacted months starting within [from, to], oldest first
+    @Query("SELECT c.id.monthStart AS date, c.electricity AS electricity, c.wastage AS wastage, c.transportation AS transportation " +
+            "FROM CompactedFootprint c WHERE c.id.userId = :userId AND c.id.monthStart BETWEEN :from AND :to " +
+            "ORDER BY c.id.monthStart ASC")
+    List<CategoryFootprintView> findCategoriesByUserId(@Param("userId") Long userId,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+    boolean existsByIdUserId(Long userId);
+
+    @Query("SELECT c.id.userId FROM CompactedFootprint c WHERE c.id.monthStart = :monthStart")
+    List<Long> findUserIdsByMonth(@Param("monthStart") LocalDate monthStart);
+}
@@ -0,0 +1,9 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmissionFactorRepository extends JpaRepository<EmissionFactor, Long> {
+}
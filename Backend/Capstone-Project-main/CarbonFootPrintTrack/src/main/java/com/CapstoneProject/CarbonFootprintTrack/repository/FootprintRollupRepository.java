@@ -0,0 +1,33 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollup;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollupId;
+import com.CapstoneProject.CarbonFootprintTrack.model.RollupPeriod;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FootprintRollupRepository extends JpaRepository<FootprintRollup, FootprintRollupId> {
+
+    @Query("SELECT r FROM FootprintRollup r WHERE r.id.userId = :userId AND r.id.period = :period " +
+            "AND r.id.periodStart BETWEEN :from AND :to ORDER BY r.id.periodStart ASC")
+    List<FootprintRollup> findRange(@Param("userId") Long userId,
+                                    @Param("period") RollupPeriod period,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT r.id.userId FROM FootprintRollup r WHERE r.id.userId > :afterId ORDER BY r.id.userId ASC")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM FootprintRollup r WHERE r.id.userId IN :userIds AND r.id.periodStart >= :from")
+    int deleteByUserIdsStartingFrom(@Param("userIds") Collection<Long> userIds, @Param("from") LocalDate from);
+}
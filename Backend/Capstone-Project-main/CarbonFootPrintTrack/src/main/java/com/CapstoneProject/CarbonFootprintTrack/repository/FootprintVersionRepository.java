@@ -0,0 +1,38 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Reads and bumps footprint_version rows. Bumps are single upserts so concurrent submissions never lose one.
+@Repository
+public class FootprintVersionRepository {
+
+    private static final String BUMP_SQL = "INSERT INTO footprint_version (user_id, version) VALUES (?, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public long findVersion(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM footprint_version WHERE user_id = ?", Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    public void bump(Long userId) {
+        jdbcTemplate.update(BUMP_SQL, userId);
+    }
+
+    public void bumpAll(Collection<Long> userIds) {
+        List<Object[]> args = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            args.add(new Object[]{userId});
+        }
+        jdbcTemplate.batchUpdate(BUMP_SQL, args);
+    }
+}
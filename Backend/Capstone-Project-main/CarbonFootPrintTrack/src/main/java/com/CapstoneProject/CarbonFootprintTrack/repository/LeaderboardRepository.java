@@ -1,10 +1,16 @@
 package com.CapstoneProject.CarbonFootprintTrack.repository;
 
 import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.projection.LeaderboardVersionView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +18,14 @@ public interface LeaderboardRepository extends JpaRepository<leaderBoard,Long> {
 
     @Query("SELECT l FROM leaderBoard l WHERE l.city = :city ORDER BY l.totalCarbonFootprint DESC")
     List<leaderBoard> findAllByCity(String city);
+
+    // The users' rows locked until the transaction ends, so concurrent submissions add to the total one
+    // after the other. Locked in user id order, so two batches cannot deadlock on each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM leaderBoard l WHERE l.userId IN :userIds ORDER BY l.userId ASC")
+    List<leaderBoard> lockAllById(@Param("userIds") Collection<Long> userIds);
+
+    // Keyset page of row versions in user id order; LeaderboardIndex compares them with what it has applied
+    @Query("SELECT l.userId AS userId, l.version AS version FROM leaderBoard l WHERE l.userId > :afterId ORDER BY l.userId ASC")
+    List<LeaderboardVersionView> findVersionsAfter(@Param("afterId") Long afterId, Pageable page);
 }
@@ -0,0 +1,36 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxEvent;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Locks the due events and skips those another dispatcher has locked (FOR UPDATE SKIP LOCKED),
+    // so concurrent dispatchers claim disjoint batches instead of queueing behind each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.CapstoneProject.CarbonFootprintTrack.model.OutboxStatus.PENDING " +
+            "AND e.eventType = :eventType AND e.nextAttemptAt <= :now ORDER BY e.id ASC")
+    List<OutboxEvent> lockDue(@Param("eventType") String eventType, @Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.createdAt < :before")
+    int deleteByStatusCreatedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,56 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Adds partial sums to carbon_rollup with one atomic upsert per bucket, so concurrent submissions for the
+// same bucket neither lose an increment nor race to insert it.
+@Repository
+public class RollupBatchRepository {
+
+    private static final String[] SUMMED = {"transportation", "electricity", "wastage", "carbon_footprint", "submissions"};
+
+    // Primary key order, so concurrent batches lock their buckets in the same order
+    private static final Comparator<FootprintRollup> KEY_ORDER = Comparator
+            .comparing((FootprintRollup rollup) -> rollup.getId().getUserId())
+            .thenComparing(rollup -> rollup.getId().getPeriod())
+            .thenComparing(rollup -> rollup.getId().getPeriodStart());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile String addSql;
+
+    public void addAll(Collection<FootprintRollup> partials) {
+        List<FootprintRollup> sorted = partials.stream().sorted(KEY_ORDER).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(addSql(), sorted, sorted.size(), (ps, rollup) -> {
+            ps.setLong(1, rollup.getId().getUserId());
+            ps.setString(2, rollup.getId().getPeriod().name());
+            ps.setDate(3, Date.valueOf(rollup.getId().getPeriodStart()));
+            ps.setDouble(4, rollup.getTransportation());
+            ps.setDouble(5, rollup.getElectricity());
+            ps.setDouble(6, rollup.getWastage());
+            ps.setDouble(7, rollup.getCarbonFootprint());
+            ps.setLong(8, rollup.getSubmissions());
+        });
+    }
+
+    private String addSql() {
+        if (addSql == null) {
+            boolean mysql = AdditiveUpsert.isMysql(jdbcTemplate);
+            addSql = "INSERT INTO carbon_rollup " +
+                    "(user_id, period, period_start, transportation, electricity, wastage, carbon_footprint, submissions) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)" + AdditiveUpsert.rowAlias(mysql) +
+                    AdditiveUpsert.onDuplicateAdd(mysql, "carbon_rollup", SUMMED);
+        }
+        return addSql;
+    }
+}
@@ -0,0 +1,171 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.BulkImportResultDto;
+import com.CapstoneProject.CarbonFootprintTrack.entities.CarbonFootprintForm;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.LeaderboardIndex;
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonFootprintBatchRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonRetentionRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.LeaderboardRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Imports historical CarbonFootprintForm records from a JSON array or NDJSON stream.
+// Records are parsed one at a time and written in chunks; each chunk commits its carbondetails rows,
+// rollups, leaderboard totals and one outbox delta per user together, so a failed import leaves
+// every committed chunk fully applied. Records dated in months that retention has already compacted are
+// added to those months' summaries instead of carbondetails. Each distinct userId is checked with UserManagement
+// once, outside the chunk transactions, and records for unknown users are rejected: their outbox deltas could
+// never be applied. If UserManagement can't answer, the import stops there with a 503.
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    @Autowired
+    private CarbonTrackService carbonTrackService;
+
+    @Autowired
+    private CarbonFootprintBatchRepository batchRepository;
+
+    @Autowired
+    private CarbonRetentionRepository retentionRepository;
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${carbontrack.bulk.chunk-size:5000}")
+    private int chunkSize;
+
+    public BulkImportResultDto importForms(InputStream input) throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<CarbonFootPrint> chunk = new ArrayList<>(chunkSize);
+        Set<Long> users = new HashSet<>();
+        Map<Long, Boolean> knownUsers = new HashMap<>();
+        long imported = 0;
+        long rejected = 0;
+        double totalEmissions = 0;
+
+        // readValues iterates the elements of a top-level array, or a whitespace-separated sequence of objects
+        try (MappingIterator<CarbonFootprintForm> forms = objectMapper.readerFor(CarbonFootprintForm.class).readValues(input)) {
+            while (forms.hasNextValue()) {
+                CarbonFootprintForm form = forms.nextValue();
+                if (form.getUserId() == null
+                        || !knownUsers.computeIfAbsent(form.getUserId(), carbonTrackService::isKnownUser)) {
+                    rejected++;
+                    continue;
+                }
+                CarbonFootPrint footprint = carbonTrackService.buildFootprint(form,
+                        form.getDate() != null ? form.getDate() : LocalDate.now());
+                chunk.add(footprint);
+                users.add(footprint.getUserId());
+                totalEmissions += footprint.getCarbon_footprint();
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(tx, chunk);
+                    imported += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                    log.info("Bulk import committed {} records", imported);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(tx, chunk);
+            imported += chunk.size();
+        }
+
+        List<Long> unknownUserIds = knownUsers.entrySet().stream()
+                .filter(user -> !user.getValue())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+        return new BulkImportResultDto(imported, rejected, users.size(), totalEmissions, unknownUserIds);
+    }
+
+    private void writeChunk(TransactionTemplate tx, List<CarbonFootPrint> chunk) {
+        tx.executeWithoutResult(status -> {
+            // Locking the watermark keeps a running compaction from moving it past rows this chunk writes raw
+            LocalDate compactedBefore = retentionRepository.lockCompactedBefore();
+            List<CarbonFootPrint> raw = new ArrayList<>(chunk.size());
+            List<CarbonFootPrint> compacted = new ArrayList<>();
+            for (CarbonFootPrint footprint : chunk) {
+                (footprint.getToday_date().isBefore(compactedBefore) ? compacted : raw).add(footprint);
+            }
+            batchRepository.insertAll(raw);
+            if (!compacted.isEmpty()) {
+                retentionRepository.addToCompacted(compacted);
+            }
+            rollupService.recordAll(chunk);
+            applyUserTotals(chunk);
+        });
+    }
+
+    // One leaderboard update and one outbox delta per user in the chunk
+    private void applyUserTotals(List<CarbonFootPrint> chunk) {
+        Map<Long, Double> deltas = new LinkedHashMap<>();
+        Map<Long, CarbonFootPrint> latest = new LinkedHashMap<>();
+        for (CarbonFootPrint footprint : chunk) {
+            deltas.merge(footprint.getUserId(), footprint.getCarbon_footprint(), Double::sum);
+            latest.put(footprint.getUserId(), footprint);
+        }
+
+        Map<Long, leaderBoard> leaderboards = leaderboardRepository.lockAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(leaderBoard::getUserId, Function.identity()));
+        List<leaderBoard> updated = new ArrayList<>(deltas.size());
+        deltas.forEach((userId, delta) -> {
+            leaderBoard leaderboard = leaderboards.computeIfAbsent(userId, id -> {
+                CarbonFootPrint footprint = latest.get(id);
+                leaderBoard newLeaderboard = new leaderBoard();
+                newLeaderboard.setUserId(id);
+                newLeaderboard.setName(footprint.getName());
+                newLeaderboard.setCity(footprint.getCity());
+                return newLeaderboard;
+            });
+            leaderboard.setTotalCarbonFootprint(leaderboard.getTotalCarbonFootprint() + delta);
+            updated.add(leaderboard);
+            outboxDispatcher.recordUserFootprintDelta(userId, delta);
+        });
+        leaderboardRepository.saveAll(updated);
+        updated.forEach(leaderboardIndex::updateAfterCommit);
+        resourceVersionService.usersChanged(deltas.keySet());
+    }
+}
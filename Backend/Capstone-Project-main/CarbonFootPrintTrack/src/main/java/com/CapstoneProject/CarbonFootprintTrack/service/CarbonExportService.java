@@ -0,0 +1,166 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Writes carbondetails straight from a database cursor to the response, one row at a time,
+// so memory use does not depend on how many rows are exported.
+@Service
+public class CarbonExportService {
+
+    public enum Format {
+        JSON,
+        NDJSON,
+        CSV
+    }
+
+    private static final String CSV_HEADER = "id,userId,name,date,city,transportation,electricity,wastage,carbon_footprint";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${carbontrack.export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Rows with id > afterId matching the optional filters, in id order, at most "limit" rows (0 = no limit).
+    // Pass the last exported id as afterId to fetch the next page.
+    public void export(OutputStream out, Format format, Long afterId, Long userId, String city,
+                       LocalDate from, LocalDate to, int limit) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<CarbonFootPrint> rows = stream(afterId != null ? afterId : 0L, userId, city, from, to, limit)) {
+                if (format == Format.CSV) {
+                    writeCsv(out, rows);
+                } else {
+                    writeJson(out, rows, format == Format.NDJSON);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Cursor-backed query in id order; must be consumed inside the transaction and closed. The fetch size
+    // is set on this statement only: MySQL's Connector/J streams row by row for Integer.MIN_VALUE, and
+    // drivers with real cursors (H2, MySQL with useCursorFetch=true) take a positive batch size.
+    // Only the filters that were given go into the WHERE clause: "(:userId IS NULL OR c.userId = :userId)" would
+    // keep MySQL from seeking through the user or city index and walk the primary key over the whole table.
+    private Stream<CarbonFootPrint> stream(Long afterId, Long userId, String city, LocalDate from, LocalDate to, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT c FROM CarbonFootPrint c WHERE c.id > :afterId");
+        parameters.put("afterId", afterId);
+        if (userId != null) {
+            jpql.append(" AND c.userId = :userId");
+            parameters.put("userId", userId);
+        }
+        if (city != null) {
+            jpql.append(" AND c.city = :city");
+            parameters.put("city", city);
+        }
+        if (from != null) {
+            jpql.append(" AND c.today_date >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND c.today_date <= :to");
+            parameters.put("to", to);
+        }
+        jpql.append(" ORDER BY c.id ASC");
+
+        TypedQuery<CarbonFootPrint> query = entityManager.createQuery(jpql.toString(), CarbonFootPrint.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        parameters.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultStream();
+    }
+
+    private void writeJson(OutputStream out, Stream<CarbonFootPrint> rows, boolean lineDelimited) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (lineDelimited) {
+                // Separate values with newlines instead of the generator's default space
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            for (CarbonFootPrint row : (Iterable<CarbonFootPrint>) rows::iterator) {
+                generator.writeObject(row);
+                if (lineDelimited) {
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(row); // Keep the persistence context from growing with the export
+            }
+            if (!lineDelimited) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private void writeCsv(OutputStream out, Stream<CarbonFootPrint> rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (CarbonFootPrint row : (Iterable<CarbonFootPrint>) rows::iterator) {
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getUserId()));
+            writer.write(',');
+            writer.write(csvField(row.getName()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getToday_date()));
+            writer.write(',');
+            writer.write(csvField(row.getCity()));
+            writer.write(',');
+            writer.write(Double.toString(row.getTransportation()));
+            writer.write(',');
+            writer.write(Double.toString(row.getElectricity()));
+            writer.write(',');
+            writer.write(Double.toString(row.getWastage()));
+            writer.write(',');
+            writer.write(Double.toString(row.getCarbon_footprint()));
+            writer.write('\n');
+            entityManager.detach(row);
+        }
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,24 +1,48 @@
 package com.CapstoneProject.CarbonFootprintTrack.service;
 
 import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserIdNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.datasource.ReadYourWrites;
+import com.CapstoneProject.CarbonFootprintTrack.emission.EmissionFactorRegistry;
+import com.CapstoneProject.CarbonFootprintTrack.emission.EmissionFactorTable;
 import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.*;
-import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.client.CachedUserClient;
 import com.CapstoneProject.CarbonFootprintTrack.entities.CarbonFootprintForm;
 import com.CapstoneProject.CarbonFootprintTrack.entities.Transportation;
 import com.CapstoneProject.CarbonFootprintTrack.entities.Wastage;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.LeaderboardIndex;
 import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
-import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionCategory;
 import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.projection.CategoryFootprintView;
+import com.CapstoneProject.CarbonFootprintTrack.projection.DailyFootprintView;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonRetentionRepository;
 import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonTrackRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CompactedFootprintRepository;
 import com.CapstoneProject.CarbonFootprintTrack.repository.LeaderboardRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,146 +52,328 @@ public class CarbonTrackService {
     private CarbonTrackRepository carbonTrackRepository;
 
     @Autowired
-    private UserClient userFeignClient; // Feign client for User service
+    private CompactedFootprintRepository compactedFootprintRepository;
+
+    @Autowired
+    private CarbonRetentionRepository retentionRepository;
 
     @Autowired
     private LeaderboardRepository leaderboardRepository;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private CachedUserClient cachedUserClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmissionFactorRegistry emissionFactorRegistry;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public static final int DEFAULT_DASHBOARD_PAGE = 30;
+    private static final int MAX_DASHBOARD_PAGE = 365;
+
+    // Open-ended range bounds that stay inside the MySQL DATE range
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     // Convert LocalDate to String
-    private String dateConversion(LocalDate date) {
+    public static String dateConversion(LocalDate date) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         return date.format(formatter);
     }
 
-    public List<CarbonFootPrint> getAllCarbonDetails() {
-        return carbonTrackRepository.findAll();
-    }
+    // Get the latest records of total carbon footprint, newest first.
+    // (before, beforeId) is an exclusive keyset cursor: pass the date and id of the last entry of the previous
+    // page to get the next one. Without beforeId the whole "before" day is skipped.
+    // History older than the retention horizon continues as one entry per month, dated on its first day;
+    // those entries have no id and months are unique per user, so their date alone is the cursor.
+    // Read-only transaction: the watermark and both tables are read from one snapshot, on a replica when
+    // replicas are configured and the user has not just submitted.
+    @Transactional(readOnly = true)
+    public List<DashboardResponseDto> getDashboard(Long userId, LocalDate before, Long beforeId, int limit) {
+        readYourWrites.route(userId);
+        Pageable page = PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_DASHBOARD_PAGE));
+        LocalDate compactedBefore = retentionRepository.findCompactedBefore();
+        List<DailyFootprintView> footprints = new ArrayList<>(before == null
+                ? carbonTrackRepository.findLatestByUserId(userId, compactedBefore, page)
+                : carbonTrackRepository.findLatestByUserIdBefore(userId, compactedBefore, before,
+                        beforeId != null ? beforeId : 0L, page));
+
+        // Compacted months are all older than the raw rows, so they fill up the rest of the page
+        if (footprints.size() < page.getPageSize()) {
+            LocalDate cursor = before != null && before.isBefore(compactedBefore) ? before : compactedBefore;
+            footprints.addAll(compactedFootprintRepository.findLatestByUserIdBefore(userId, cursor,
+                    PageRequest.of(0, page.getPageSize() - footprints.size())));
+        }
 
-    // Get the latest 30 records of total carbon footprint
-    public List<DashboardResponseDto> getDashboard(Long userId) {
-        List<CarbonFootPrint> footprints = carbonTrackRepository.findByUserId(userId);
+        recordRows("dashboard", footprints.size());
 
-        if (footprints.isEmpty()) {
+        // An empty continuation page just means the history is exhausted
+        if (footprints.isEmpty() && before == null) {
             throw new UserIdNotFoundException(userId);
         }
 
         return footprints.stream()
-                .sorted((f1, f2) -> f2.getToday_date().compareTo(f1.getToday_date())) // Sort by date descending
-                .limit(30) // Limit to 30 records
-                .map(carbonFootPrint -> {
-                    DashboardResponseDto dto = new DashboardResponseDto();
-                    dto.setDate(dateConversion(carbonFootPrint.getToday_date()));
-                    dto.setTotalCarbonFootprint(carbonFootPrint.getCarbon_footprint());
-                    return dto;
-                })
+                .map(CarbonTrackService::toDashboardDto)
                 .collect(Collectors.toList());
     }
 
+    public static DashboardResponseDto toDashboardDto(DailyFootprintView footprint) {
+        return new DashboardResponseDto(dateConversion(footprint.getDate()), footprint.getTotalCarbonFootprint(), footprint.getId());
+    }
+
     // Get carbon footprint details emitted by only electricity
+    @Transactional(readOnly = true)
     public List<ElectricityDto> getElectricityCarbonFootprint(Long userId) {
-        List<CarbonFootPrint> footprints = carbonTrackRepository.findByUserId(userId);
-
-        if (footprints.isEmpty()) {
-            throw new UserIdNotFoundException(userId);
-        }
-
-        return footprints.stream()
-                .map(carbonFootPrint -> {
-                    ElectricityDto dto = new ElectricityDto();
-                    dto.setDate(dateConversion(carbonFootPrint.getToday_date()));
-                    dto.setElectricity(carbonFootPrint.getElectricity());
-                    return dto;
-                })
+        return findCategories(userId, null, null).stream()
+                .map(footprint -> new ElectricityDto(dateConversion(footprint.getDate()), footprint.getElectricity()))
                 .collect(Collectors.toList());
     }
 
     // Get carbon footprint details emitted by only wastage
+    @Transactional(readOnly = true)
     public List<WastageDto> getWastageCarbonFootprint(Long userId) {
-        List<CarbonFootPrint> footprints = carbonTrackRepository.findByUserId(userId);
-
-        if (footprints.isEmpty()) {
-            throw new UserIdNotFoundException(userId);
-        }
-
-        return footprints.stream()
-                .map(carbonFootPrint -> {
-                    WastageDto dto = new WastageDto();
-                    dto.setDate(dateConversion(carbonFootPrint.getToday_date()));
-                    dto.setWastage(carbonFootPrint.getWastage());
-                    return dto;
-                })
+        return findCategories(userId, null, null).stream()
+                .map(footprint -> new WastageDto(dateConversion(footprint.getDate()), footprint.getWastage()))
                 .collect(Collectors.toList());
     }
 
     // Get carbon footprint details emitted by only transportation
+    @Transactional(readOnly = true)
     public List<TransportationDto> getTransportation(Long userId) {
-        List<CarbonFootPrint> footprints = carbonTrackRepository.findByUserId(userId);
+        return findCategories(userId, null, null).stream()
+                .map(footprint -> new TransportationDto(dateConversion(footprint.getDate()), footprint.getTransportation()))
+                .collect(Collectors.toList());
+    }
+
+    // Get the electricity, wastage and transportation series from a single read.
+    // An empty or null "fields" set returns all three series.
+    @Transactional(readOnly = true)
+    public BreakdownResponseDto getBreakdown(Long userId, LocalDate from, LocalDate to, Set<String> fields) {
+        List<CategoryFootprintView> footprints = findCategories(userId, from, to);
+        boolean all = fields == null || fields.isEmpty();
+
+        List<ElectricityDto> electricity = all || fields.contains("electricity") ? new ArrayList<>(footprints.size()) : null;
+        List<WastageDto> wastage = all || fields.contains("wastage") ? new ArrayList<>(footprints.size()) : null;
+        List<TransportationDto> transportation = all || fields.contains("transportation") ? new ArrayList<>(footprints.size()) : null;
+
+        for (CategoryFootprintView footprint : footprints) {
+            String date = dateConversion(footprint.getDate());
+            if (electricity != null) {
+                electricity.add(new ElectricityDto(date, footprint.getElectricity()));
+            }
+            if (wastage != null) {
+                wastage.add(new WastageDto(date, footprint.getWastage()));
+            }
+            if (transportation != null) {
+                transportation.add(new TransportationDto(date, footprint.getTransportation()));
+            }
+        }
+
+        return new BreakdownResponseDto(electricity, wastage, transportation);
+    }
+
+    // Compacted months (each dated on its first day) followed by the raw rows, oldest first.
+    // A compacted month is included when it starts within [first day of from's month, to].
+    // A user without any history is unknown; a range without data for a known user is just empty.
+    private List<CategoryFootprintView> findCategories(Long userId, LocalDate from, LocalDate to) {
+        readYourWrites.route(userId);
+        LocalDate start = from != null ? from : EARLIEST_DATE;
+        LocalDate end = to != null ? to : LATEST_DATE;
+        LocalDate compactedBefore = retentionRepository.findCompactedBefore();
+
+        List<CategoryFootprintView> footprints = new ArrayList<>();
+        if (start.isBefore(compactedBefore)) {
+            footprints.addAll(compactedFootprintRepository.findCategoriesByUserId(userId, start.withDayOfMonth(1),
+                    end.isBefore(compactedBefore) ? end : compactedBefore.minusDays(1)));
+        }
+        if (!end.isBefore(compactedBefore)) {
+            footprints.addAll(carbonTrackRepository.findCategoriesByUserId(userId,
+                    start.isBefore(compactedBefore) ? compactedBefore : start, end));
+        }
+        recordRows("categories", footprints.size());
 
-        if (footprints.isEmpty()) {
+        if (footprints.isEmpty() && ((from == null && to == null) || !hasHistory(userId))) {
             throw new UserIdNotFoundException(userId);
         }
+        return footprints;
+    }
 
-        return footprints.stream()
-                .map(carbonFootPrint -> {
-                    TransportationDto dto = new TransportationDto();
-                    dto.setDate(dateConversion(carbonFootPrint.getToday_date()));
-                    dto.setTransportation(carbonFootPrint.getTransportation());
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    private boolean hasHistory(Long userId) {
+        return carbonTrackRepository.existsByUserId(userId) || compactedFootprintRepository.existsByIdUserId(userId);
     }
 
-    // Calculate and submit carbon footprint data
+    // Calculate and submit carbon footprint data. Each step is timed as a "carbontrack.submit.stage"
+    // so a slow submission can be attributed to the calculation, a table or the commit itself.
+    // The user is checked before the transaction starts, so a profile-cache miss doesn't hold a connection
+    // while UserManagement answers; if UserManagement is down on a miss the submission fails with a 503.
+    // An unknown user is answered with a 404 here, unlike the reads, where UserIdNotFoundException means "no history yet".
     public ResponseEntity<String> calculateAndSubmit(CarbonFootprintForm form) {
-        double transportationEmissions = calculateTransportationEmissions(form.getTransportations());
-        double wastageEmissions = calculateWastageEmissions(form.getWastages());
-        double electricityEmissions = calculateElectricityEmissions(form.getPrevWatts(), form.getTodayWatts());
+        try {
+            requireKnownUser(form.getUserId());
+        } catch (UserIdNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(" " + e.getMessage());
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> submit(form));
+    }
+
+    // The outbox delta for an unknown user could never be applied, so it must not be committed
+    private void requireKnownUser(Long userId) {
+        if (!isKnownUser(userId)) {
+            throw new UserIdNotFoundException(userId);
+        }
+    }
+
+    // Through the profile near-cache; UserManagementUnavailableException propagates when it can't answer on a miss
+    boolean isKnownUser(Long userId) {
+        try {
+            return cachedUserClient.getUserById(userId) != null;
+        } catch (FeignException.NotFound e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<String> submit(CarbonFootprintForm form) {
+        timeCommit();
+        readYourWrites.wrote(form.getUserId());
+        CarbonFootPrint carbonFootprint = stage("calculate", () -> buildFootprint(form, LocalDate.now()));
+        double totalEmissions = carbonFootprint.getCarbon_footprint();
+
+        // Update or create leaderboard entry
+        stage("leaderboard", () -> {
+            leaderBoard leaderboard = leaderboardRepository.lockAllById(List.of(form.getUserId())).stream()
+                    .findFirst()
+                    .orElseGet(() -> {
+                        leaderBoard newLeaderboard = new leaderBoard();
+                        newLeaderboard.setUserId(form.getUserId());
+                        newLeaderboard.setName(form.getName()); // Changed from username to name
+                        newLeaderboard.setCity(form.getCity());
+                        return newLeaderboard;
+                    });
+            leaderboard.setTotalCarbonFootprint(leaderboard.getTotalCarbonFootprint() + totalEmissions);
+            leaderboardRepository.save(leaderboard);
+            leaderboardIndex.updateAfterCommit(leaderboard);
+            return leaderboard;
+        });
+
+        // Save CarbonFootprint record and fold it into the daily/weekly/monthly rollups
+        stage("insert", () -> carbonTrackRepository.save(carbonFootprint));
+        stage("rollup", () -> {
+            rollupService.record(carbonFootprint);
+            return null;
+        });
+        stage("version", () -> {
+            resourceVersionService.userChanged(form.getUserId());
+            return null;
+        });
+
+        // The user total in UserManagement is updated asynchronously from the outbox, so the
+        // request only waits for this local commit
+        stage("outbox", () -> {
+            outboxDispatcher.recordUserFootprintDelta(form.getUserId(), totalEmissions);
+            return null;
+        });
+
+        return ResponseEntity.ok("Carbon footprint submitted successfully with total emissions: " + totalEmissions);
+    }
+
+    private <T> T stage(String stage, Supplier<T> step) {
+        return submitStageTimer(stage).record(step);
+    }
+
+    private Timer submitStageTimer(String stage) {
+        return Timer.builder("carbontrack.submit.stage")
+                .description("Time spent in each step of a footprint submission")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    // Repository saves are mostly deferred to the flush, so the "commit" stage covers the flush and the commit
+    private void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (start != 0) {
+                    submitStageTimer("commit").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    private void recordRows(String query, int rows) {
+        DistributionSummary.builder("carbontrack.history.rows")
+                .description("Rows returned by a history query")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+
+    // Compute the emissions for one form and build the (unsaved) carbondetails row for the given day.
+    // Factors come from the registry snapshot for the form's city and that day.
+    public CarbonFootPrint buildFootprint(CarbonFootprintForm form, LocalDate date) {
+        EmissionFactorTable factors = emissionFactorRegistry.current();
+        int region = factors.regionOf(form.getCity());
+        long day = date.toEpochDay();
+
+        double transportationEmissions = calculateTransportationEmissions(form.getTransportations(), factors, region, day);
+        double wastageEmissions = calculateWastageEmissions(form.getWastages(), factors.factor(EmissionCategory.WASTE, region, day));
+        double electricityEmissions = calculateElectricityEmissions(form.getPrevWatts(), form.getTodayWatts(),
+                factors.factor(EmissionCategory.ELECTRICITY, region, day));
 
         double totalEmissions = transportationEmissions + wastageEmissions + electricityEmissions;
 
-        // Create and save CarbonFootprint entity
         CarbonFootPrint carbonFootprint = new CarbonFootPrint();
         carbonFootprint.setUserId(form.getUserId());
-        carbonFootprint.setToday_date(LocalDate.now());
+        carbonFootprint.setToday_date(date);
         carbonFootprint.setCity(form.getCity());
         carbonFootprint.setName(form.getName()); // Changed from username to name
         carbonFootprint.setTransportation(transportationEmissions);
         carbonFootprint.setWastage(wastageEmissions);
         carbonFootprint.setElectricity(electricityEmissions);
         carbonFootprint.setCarbon_footprint(totalEmissions);
-
-        // Update user total carbon footprint via Feign client
-        User user = userFeignClient.getUserById(form.getUserId());
-        if (user == null) {
-            throw new UserIdNotFoundException(form.getUserId());
-        }
-        user.setTotalCarbonFootprint(user.getTotalCarbonFootprint() + totalEmissions);
-        userFeignClient.updateUser(form.getUserId(), user);
-
-        // Update or create leaderboard entry
-        leaderBoard leaderboard = leaderboardRepository.findById(form.getUserId())
-                .orElseGet(() -> {
-                    leaderBoard newLeaderboard = new leaderBoard();
-                    newLeaderboard.setUserId(form.getUserId());
-                    newLeaderboard.setName(form.getName()); // Changed from username to name
-                    newLeaderboard.setCity(form.getCity());
-                    return newLeaderboard;
-                });
-        leaderboard.setTotalCarbonFootprint(leaderboard.getTotalCarbonFootprint() + totalEmissions);
-        leaderboardRepository.save(leaderboard);
-
-        // Save CarbonFootprint record
-        carbonTrackRepository.save(carbonFootprint);
-
-        return ResponseEntity.ok("Carbon footprint submitted successfully with total emissions: " + totalEmissions);
+        return carbonFootprint;
     }
 
-
     // Calculate transportation emissions
-    private double calculateTransportationEmissions(List<Transportation> transportations) {
+    public static double calculateTransportationEmissions(List<Transportation> transportations, EmissionFactorTable factors,
+                                                          int region, long day) {
         double emissions = 0.0;
-        for (Transportation t : transportations) {
-            double emissionFactor = getEmissionFactor(t.getMode());
+        if (transportations == null) {
+            return emissions;
+        }
+        for (int i = 0, n = transportations.size(); i < n; i++) {
+            Transportation t = transportations.get(i);
+            double emissionFactor = getEmissionFactor(t.getMode(), factors, region, day);
             if (t.getDistance() != 0.0) {
                 emissions += t.getDistance() * emissionFactor;
             } else if (t.getTime() != 0.0) {
@@ -178,34 +384,25 @@ public class CarbonTrackService {
     }
 
     // Calculate wastage emissions
-    private double calculateWastageEmissions(List<Wastage> wastages) {
+    public static double calculateWastageEmissions(List<Wastage> wastages, double emissionFactor) {
         double emissions = 0.0;
-        for (Wastage w : wastages) {
-            emissions += (w.getWetWaste() + w.getDryWaste()) * 0.5; // Example emission factor
+        if (wastages == null) {
+            return emissions;
+        }
+        for (int i = 0, n = wastages.size(); i < n; i++) {
+            Wastage w = wastages.get(i);
+            emissions += (w.getWetWaste() + w.getDryWaste()) * emissionFactor;
         }
         return emissions;
     }
 
     // Calculate electricity emissions
-    private double calculateElectricityEmissions(int prevWatts, int todayWatts) {
-        return (todayWatts - prevWatts) * 0.7; // Example emission factor
-    }
-
-    // Get emission factor based on mode of transportation
-    private double getEmissionFactor(String mode) {
-        switch (mode.toLowerCase()) {
-            case "car":
-                return 0.2;
-            case "electric car":
-                return 0.1;
-            case "train":
-                return 0.05;
-            case "flight":
-                return 0.3;
-            case "bus":
-                return 0.15;
-            default:
-                return 0.2;
-        }
+    public static double calculateElectricityEmissions(int prevWatts, int todayWatts, double emissionFactor) {
+        return (todayWatts - prevWatts) * emissionFactor;
+    }
+
+    // Get emission factor based on mode of transportation; unknown modes use the OTHER_TRANSPORT factor
+    public static double getEmissionFactor(String mode, EmissionFactorTable factors, int region, long day) {
+        return factors.factor(EmissionCategory.fromTransportMode(mode), region, day);
     }
 }
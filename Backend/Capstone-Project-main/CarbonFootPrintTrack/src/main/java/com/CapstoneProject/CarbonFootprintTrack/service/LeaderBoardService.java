@@ -1,12 +1,18 @@
 package com.CapstoneProject.CarbonFootprintTrack.service;
 
 import com.CapstoneProject.CarbonFootprintTrack.Exceptions.CityNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserIdNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.RankedLeaderBoardDto;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.CityLeaderboard;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.LeaderboardIndex;
 import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
 
 import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
 import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonTrackRepository;
 import com.CapstoneProject.CarbonFootprintTrack.repository.LeaderboardRepository;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -25,21 +31,71 @@ public class LeaderBoardService {
     @Autowired
     private LeaderboardRepository leaderboardRepository;
 
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final int MAX_PAGE = 500;
+
     public String DateConversion(LocalDate date){
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         return date.format(formatter);
     }
 
-    public List<leaderBoard> getLeaderBoard(String city) {
+    // Page of the city's leaderboard by rank, served from the in-memory index; a null limit reads to the end
+    public List<leaderBoard> getLeaderBoard(String city, long offset, Integer limit) {
+        CityLeaderboard leaderboard = cityLeaderboard(city);
+        int count = limit == null ? leaderboard.size() : clampLimit(limit);
+        List<leaderBoard> page = leaderboard.range(offset, count).stream()
+                .map(CityLeaderboard.RankedEntry::getEntry)
+                .collect(Collectors.toList());
+        recordRows("page", page.size());
+        return page;
+    }
+
+    public List<RankedLeaderBoardDto> getTopRanked(String city, int n) {
+        List<CityLeaderboard.RankedEntry> top = cityLeaderboard(city).range(0, clampLimit(n));
+        recordRows("top", top.size());
+        return toRankedDtos(top);
+    }
 
-        List<leaderBoard> leaderboard = leaderboardRepository.findAllByCity(city);
+    // The user's rank in the city with up to "radius" neighbours on each side
+    public List<RankedLeaderBoardDto> getRankWithNeighbours(String city, Long userId, int radius) {
+        List<CityLeaderboard.RankedEntry> around = cityLeaderboard(city).around(userId, Math.min(Math.max(radius, 0), MAX_PAGE / 2));
+        recordRows("rank", around.size());
+        if (around.isEmpty()) {
+            throw new UserIdNotFoundException(userId);
+        }
+        return toRankedDtos(around);
+    }
 
-        if (leaderboard.isEmpty()) {
+    private CityLeaderboard cityLeaderboard(String city) {
+        CityLeaderboard leaderboard = leaderboardIndex.city(city);
+        if (leaderboard == null || leaderboard.size() == 0) {
             throw new CityNotFoundException(city);
         }
+        return leaderboard;
+    }
+
+    private int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE);
+    }
+
+    private void recordRows(String query, int rows) {
+        DistributionSummary.builder("carbontrack.leaderboard.rows")
+                .description("Entries returned by a leaderboard query")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(rows);
+    }
 
-        return leaderboard.stream()
-                .sorted((lb1, lb2) -> Double.compare(lb2.getTotalCarbonFootprint(), lb1.getTotalCarbonFootprint())) // Sort in descending order
+    private List<RankedLeaderBoardDto> toRankedDtos(List<CityLeaderboard.RankedEntry> entries) {
+        return entries.stream()
+                .map(ranked -> new RankedLeaderBoardDto(ranked.getRank(), ranked.getEntry().getUserId(),
+                        ranked.getEntry().getName(), ranked.getEntry().getCity(), ranked.getEntry().getTotalCarbonFootprint()))
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,193 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserManagementUnavailableException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.FootprintDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxEvent;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxStatus;
+import com.CapstoneProject.CarbonFootprintTrack.repository.OutboxEventRepository;
+import feign.FeignException;
+import feign.RetryableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Delivers pending USER_FOOTPRINT_DELTA outbox events to UserManagement in batches.
+// Each round claims a batch in a short transaction, calls UserManagement with no transaction or row lock held,
+// and records the outcome in a second transaction. Claiming skips rows another instance has locked and leases
+// the rest by moving nextAttemptAt past the claim lease, so concurrent instances send disjoint batches.
+// Delivery is at-least-once: a batch whose lease runs out (a crash, or a delivery slower than the lease) is
+// claimed again, and UserManagement drops deltas whose idempotency key it has already applied.
+// Cached profiles are not invalidated here: UserManagement tells every instance, this one included, which users
+// the applied deltas changed.
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    // What a delivery attempt did to one event
+    private enum Outcome {
+        APPLIED,      // UserManagement applied the delta, or had already
+        UNKNOWN_USER, // UserManagement has no such user, so retrying cannot help
+        UNAVAILABLE,  // UserManagement was unreachable or failed (5xx, 429); retried until it recovers
+        REJECTED      // UserManagement refused the event itself (4xx) or the answer was unreadable; retried up to max-attempts
+    }
+
+    private record Result(Outcome outcome, String error) {
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${carbontrack.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${carbontrack.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${carbontrack.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${carbontrack.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${carbontrack.outbox.sent-retention-days:7}")
+    private int sentRetentionDays;
+
+    // Called by CarbonTrackService inside the submission transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserFootprintDelta(Long userId, double delta) {
+        outboxEventRepository.save(OutboxEvent.userFootprintDelta(userId, delta));
+    }
+
+    @Scheduled(fixedDelayString = "${carbontrack.outbox.poll-interval-ms:200}")
+    public void dispatch() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<OutboxEvent> claimed = tx.execute(status -> claim());
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Result> results = new HashMap<>();
+        deliver(claimed, results);
+        tx.executeWithoutResult(status -> record(results));
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = outboxEventRepository.lockDue(OutboxEvent.USER_FOOTPRINT_DELTA, now,
+                PageRequest.of(0, batchSize));
+        LocalDateTime leasedUntil = now.plus(claimLeaseMs, ChronoUnit.MILLIS);
+        due.forEach(event -> event.setNextAttemptAt(leasedUntil));
+        return due;
+    }
+
+    private void deliver(List<OutboxEvent> events, Map<Long, Result> results) {
+        List<FootprintDeltaDto> batch = events.stream()
+                .map(event -> new FootprintDeltaDto(event.getUserId(), event.getDelta(), event.getIdempotencyKey()))
+                .collect(Collectors.toList());
+        try {
+            List<Long> unknownUserIds = userClient.addFootprintDeltas(batch);
+            Set<Long> unknown = unknownUserIds == null ? Set.of() : new HashSet<>(unknownUserIds);
+            for (OutboxEvent event : events) {
+                results.put(event.getId(), unknown.contains(event.getUserId())
+                        ? new Result(Outcome.UNKNOWN_USER, "UserManagement has no user with id " + event.getUserId())
+                        : new Result(Outcome.APPLIED, null));
+            }
+            if (!unknown.isEmpty()) {
+                log.warn("UserManagement has no users with ids {}; their footprint deltas were marked FAILED", unknown);
+            }
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                events.forEach(event -> results.put(event.getId(), new Result(Outcome.UNAVAILABLE, e.getMessage())));
+                log.warn("Delivering {} footprint deltas to UserManagement failed, will retry: {}", events.size(), e.getMessage());
+            } else if (events.size() > 1) {
+                // One bad event must not hold back the rest of its batch, so the halves are retried on their own
+                int half = events.size() / 2;
+                deliver(events.subList(0, half), results);
+                deliver(events.subList(half, events.size()), results);
+            } else {
+                OutboxEvent event = events.get(0);
+                results.put(event.getId(), new Result(Outcome.REJECTED, e.getMessage()));
+                log.warn("UserManagement rejected footprint delta {}: {}", event.getIdempotencyKey(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isTransient(Exception e) {
+        if (e instanceof UserManagementUnavailableException || e instanceof RetryableException) {
+            return true;
+        }
+        return e instanceof FeignException feignException
+                && (feignException.status() >= 500 || feignException.status() == 429);
+    }
+
+    private void record(Map<Long, Result> results) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : outboxEventRepository.findAllById(results.keySet())) {
+            // Already settled by another instance that claimed the event after this lease ran out
+            if (event.getStatus() != OutboxStatus.PENDING) {
+                continue;
+            }
+            Result result = results.get(event.getId());
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(result.error()));
+            switch (result.outcome()) {
+                case APPLIED -> event.setStatus(OutboxStatus.SENT);
+                case UNKNOWN_USER -> event.setStatus(OutboxStatus.FAILED);
+                case UNAVAILABLE -> event.setNextAttemptAt(now.plus(backoff(attempts), ChronoUnit.MILLIS));
+                case REJECTED -> {
+                    if (attempts >= maxAttempts) {
+                        event.setStatus(OutboxStatus.FAILED);
+                    } else {
+                        event.setNextAttemptAt(now.plus(backoff(attempts), ChronoUnit.MILLIS));
+                    }
+                }
+            }
+        }
+    }
+
+    // Exponential backoff, capped at 64x the base delay
+    private long backoff(int attempts) {
+        return retryBackoffMs << Math.min(attempts - 1, 6);
+    }
+
+    @Scheduled(cron = "${carbontrack.outbox.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeSent() {
+        int purged = outboxEventRepository.deleteByStatusCreatedBefore(OutboxStatus.SENT,
+                LocalDateTime.now().minusDays(sentRetentionDays));
+        log.info("Purged {} delivered outbox events", purged);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,63 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.datasource.ReadYourWrites;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.CityLeaderboard;
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.LeaderboardIndex;
+import com.CapstoneProject.CarbonFootprintTrack.repository.FootprintVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+// ETags for the history and leaderboard GETs, derived from version stamps rather than from the response body,
+// so a conditional request is answered without running the query.
+// User histories are versioned in the database and agree across instances. Leaderboards are served from each
+// instance's own index, so their tags carry an id of this instance and never match another instance's.
+// Tags are weak (W/) only because Tomcat refuses to gzip responses with strong ETags; If-None-Match
+// compares weakly either way.
+@Service
+public class ResourceVersionService {
+
+    private final String instanceId = Long.toString(System.nanoTime() ^ System.currentTimeMillis(), 36);
+
+    @Autowired
+    private FootprintVersionRepository footprintVersionRepository;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Runs read with the user's ETag in one read-only transaction. The version and the rows read after it come
+    // from the same connection, so with replicas a lagging replica's rows can't be sent under the primary's newer
+    // tag. The version is read first: a write racing with the read then only costs the client one extra 200.
+    public <T> T withUserETag(Long userId, Function<String, T> read) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> {
+            readYourWrites.route(userId);
+            return read.apply("W/\"u" + footprintVersionRepository.findVersion(userId) + "\"");
+        });
+    }
+
+    public String cityETag(String city) {
+        CityLeaderboard leaderboard = leaderboardIndex.city(city);
+        return "W/\"" + instanceId + "-" + (leaderboard == null ? 0 : leaderboard.version()) + "\"";
+    }
+
+    // Must run inside the transaction that changes the user's carbondetails rows
+    public void userChanged(Long userId) {
+        footprintVersionRepository.bump(userId);
+    }
+
+    public void usersChanged(Collection<Long> userIds) {
+        footprintVersionRepository.bumpAll(userIds);
+    }
+}
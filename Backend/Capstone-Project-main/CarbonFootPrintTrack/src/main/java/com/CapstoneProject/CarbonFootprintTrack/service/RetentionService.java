@@ -0,0 +1,133 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonDetailsPartitions;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonRetentionRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CompactedFootprintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Keeps carbondetails to the last raw-months whole months. Older months are compacted into one
+// carbondetails_monthly row per user and then removed: by dropping their partition on MySQL, otherwise in chunks.
+// Each month is compacted in its own transaction that also moves the watermark and bumps the affected users'
+// footprint versions, so history reads (which split at the watermark) never count a month twice, and a run
+// that dies before the purge simply purges on the next run.
+// Rows without a user are not compacted, since no history can show them; they are counted in the log and
+// discarded with their month.
+@Service
+public class RetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionService.class);
+
+    @Autowired
+    private CarbonRetentionRepository retentionRepository;
+
+    @Autowired
+    private CompactedFootprintRepository compactedFootprintRepository;
+
+    @Autowired
+    private CarbonDetailsPartitions partitions;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // At least the current and the previous month stay raw, so same-day submissions never land in a compacted month
+    @Value("${carbontrack.retention.raw-months:12}")
+    private int rawMonths;
+
+    @Value("${carbontrack.retention.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${carbontrack.retention.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    // Months must have their partition before their first row arrives, or it lands in the catch-all
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitions() {
+        try {
+            int added = partitions.createUntil(LocalDate.now().withDayOfMonth(1).plusMonths(partitionsAhead));
+            if (added > 0) {
+                log.info("Added {} monthly carbondetails partitions", added);
+            }
+        } catch (DataAccessException e) {
+            // Another instance reorganising at the same time; the next run catches up
+            log.warn("Creating carbondetails partitions failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${carbontrack.retention.cron:0 15 4 * * *}")
+    public void run() {
+        createPartitions();
+        LocalDate compactedBefore = compact(LocalDate.now());
+        purge(compactedBefore);
+    }
+
+    // Compact every month before the retention horizon, oldest first; returns the new watermark
+    public LocalDate compact(LocalDate today) {
+        LocalDate horizon = today.withDayOfMonth(1).minusMonths(Math.max(rawMonths, 1));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        while (Boolean.TRUE.equals(tx.execute(status -> compactOldestMonth(horizon)))) {
+            // one month per transaction
+        }
+        return retentionRepository.findCompactedBefore();
+    }
+
+    // Holds the watermark row lock for the whole month, so bulk imports wait rather than write raw rows into it
+    private boolean compactOldestMonth(LocalDate horizon) {
+        LocalDate compactedBefore = retentionRepository.lockCompactedBefore();
+        if (!compactedBefore.isBefore(horizon)) {
+            return false;
+        }
+        LocalDate oldest = retentionRepository.findOldestDate(compactedBefore, horizon);
+        if (oldest == null) {
+            retentionRepository.setCompactedBefore(horizon);
+            return true;
+        }
+
+        LocalDate month = oldest.withDayOfMonth(1);
+        long anonymous = retentionRepository.countWithoutUser(month);
+        if (anonymous > 0) {
+            log.warn("Discarding {} carbondetails rows without a user for {}", anonymous, month);
+        }
+        retentionRepository.compactMonth(month);
+        List<Long> userIds = compactedFootprintRepository.findUserIdsByMonth(month);
+        resourceVersionService.usersChanged(userIds);
+        retentionRepository.setCompactedBefore(month.plusMonths(1));
+        log.info("Compacted carbondetails for {} into monthly rows for {} users", month, userIds.size());
+        return true;
+    }
+
+    // Remove carbondetails rows before the watermark; reads already skip them
+    public long purge(LocalDate compactedBefore) {
+        List<String> dropped = partitions.dropBefore(compactedBefore);
+        if (!dropped.isEmpty()) {
+            log.info("Dropped compacted carbondetails partitions {}", dropped);
+        }
+
+        // Whatever a dropped partition did not cover, e.g. the pre-partitioning history or a non-MySQL database
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = retentionRepository.deleteBefore(compactedBefore, deleteChunkSize);
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+        if (deleted > 0) {
+            log.info("Deleted {} compacted carbondetails rows", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,154 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserIdNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.RollupDto;
+import com.CapstoneProject.CarbonFootprintTrack.datasource.ReadYourWrites;
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollup;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollupId;
+import com.CapstoneProject.CarbonFootprintTrack.model.RollupPeriod;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonRetentionRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonTrackRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.FootprintRollupRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.RollupBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    @Autowired
+    private FootprintRollupRepository rollupRepository;
+
+    @Autowired
+    private RollupBatchRepository rollupBatchRepository;
+
+    @Autowired
+    private CarbonTrackRepository carbonTrackRepository;
+
+    @Autowired
+    private CarbonRetentionRepository retentionRepository;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${carbontrack.rollup.rebuild-batch-size:100}")
+    private int rebuildBatchSize;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Fold one submission into its day, week and month buckets.
+    // Joins the caller's transaction so the rollups commit together with the carbondetails row.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CarbonFootPrint footprint) {
+        recordAll(List.of(footprint));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RollupDto> getRollups(Long userId, RollupPeriod period, LocalDate from, LocalDate to) {
+        readYourWrites.route(userId);
+        LocalDate start = period.bucketStart(from != null ? from : LocalDate.of(1000, 1, 1));
+        LocalDate end = to != null ? to : LocalDate.of(9999, 12, 31);
+        List<FootprintRollup> rollups = rollupRepository.findRange(userId, period, start, end);
+
+        if (rollups.isEmpty()) {
+            throw new UserIdNotFoundException(userId);
+        }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        return rollups.stream()
+                .map(rollup -> new RollupDto(rollup.getId().getPeriodStart().format(formatter),
+                        rollup.getTransportation(), rollup.getElectricity(), rollup.getWastage(),
+                        rollup.getCarbonFootprint(), rollup.getSubmissions()))
+                .collect(Collectors.toList());
+    }
+
+    // Rebuild every rollup from carbondetails, rebuildBatchSize users per transaction. Each transaction locks
+    // those users' carbondetails rows, replaces their buckets with sums of the rows and commits, so a reader
+    // sees either the old or the rebuilt buckets of a user, never none. A submission for one of the users
+    // waits for the lock, and its rollup increment then lands on the rebuilt buckets.
+    // Users that only have buckets left are walked too, so their stale buckets are removed.
+    // carbondetails no longer holds the months retention has compacted, so buckets starting before the
+    // compaction watermark are kept as they are (including a week that straddles it).
+    public long rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rollup rebuild is already running");
+        }
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            LocalDate compactedBefore = retentionRepository.findCompactedBefore();
+            long processed = 0;
+            Long cursor = 0L;
+            while (true) {
+                List<Long> userIds = nextUserIds(cursor);
+                if (userIds.isEmpty()) {
+                    return processed;
+                }
+                processed += tx.execute(status -> rebuildUsers(userIds, compactedBefore));
+                cursor = userIds.get(userIds.size() - 1);
+                log.info("Rollup rebuild processed {} rows (last user id {})", processed, cursor);
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // The next rebuildBatchSize user ids after the cursor that have carbondetails rows or buckets
+    private List<Long> nextUserIds(Long cursor) {
+        TreeSet<Long> userIds = new TreeSet<>(carbonTrackRepository.findUserIdsAfter(cursor, Limit.of(rebuildBatchSize)));
+        userIds.addAll(rollupRepository.findUserIdsAfter(cursor, Limit.of(rebuildBatchSize)));
+        return userIds.stream().limit(rebuildBatchSize).collect(Collectors.toList());
+    }
+
+    private int rebuildUsers(List<Long> userIds, LocalDate from) {
+        List<CarbonFootPrint> footprints = carbonTrackRepository.lockByUserIdsFrom(userIds, from);
+        rollupRepository.deleteByUserIdsStartingFrom(userIds, from);
+        rollupBatchRepository.addAll(sum(footprints, from));
+        return footprints.size();
+    }
+
+    // Fold a batch of submissions into the rollups with one atomic add per bucket
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<CarbonFootPrint> chunk) {
+        rollupBatchRepository.addAll(sum(chunk, null));
+    }
+
+    // Per-bucket sums of the submissions, leaving out buckets that start before "from" (if given)
+    private static Collection<FootprintRollup> sum(List<CarbonFootPrint> footprints, LocalDate from) {
+        Map<FootprintRollupId, FootprintRollup> partials = new HashMap<>();
+        for (CarbonFootPrint footprint : footprints) {
+            for (RollupPeriod period : RollupPeriod.values()) {
+                LocalDate bucketStart = period.bucketStart(footprint.getToday_date());
+                if (from != null && bucketStart.isBefore(from)) {
+                    continue;
+                }
+                FootprintRollupId id = new FootprintRollupId(footprint.getUserId(), period, bucketStart);
+                partials.computeIfAbsent(id, FootprintRollup::new).add(footprint);
+            }
+        }
+        return partials.values();
+    }
+}
@@ -2,14 +2,17 @@ package com.CapstoneProject.CarbonFootprintTrack.service;
 
 import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserIdNotFoundException;
 import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.*;
+import com.CapstoneProject.CarbonFootprintTrack.client.CachedUserClient;
 import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
 import com.CapstoneProject.CarbonFootprintTrack.model.User;
 import com.CapstoneProject.CarbonFootprintTrack.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class UserService {
@@ -24,16 +27,42 @@ public class UserService {
     @Autowired
     private UserClient userClient;
 
+    @Autowired
+    private CachedUserClient cachedUserClient;
+
+    @Value("${carbontrack.users.page-size:500}")
+    private int userPageSize;
+
+
+
 
 
+    // UserManagement calls this (via the controller) after changing a user
+    public void userChanged(Long userId) {
+        cachedUserClient.invalidate(userId);
+    }
 
+    public void usersChanged(List<Long> userIds) {
+        cachedUserClient.invalidateAll(userIds);
+    }
 
-    public List<User> getAllUsers() {
-        return userClient.getAllUsers(); // Fetch all users using Feign client
+    public UserPageDto getUsers(Long afterId, int limit) {
+        return userClient.getUsers(afterId, limit);
+    }
+
+    // Pages through every user via the Feign client, handing each page to the consumer,
+    // so only one page is held in memory at a time
+    public void forEachUserPage(Consumer<List<UserSummaryDto>> consumer) {
+        Long cursor = 0L;
+        while (cursor != null) {
+            UserPageDto page = userClient.getUsers(cursor, userPageSize);
+            consumer.accept(page.getUsers());
+            cursor = page.getNextCursor();
+        }
     }
 
     public UserDto getUserProfile(Long userId) {
-        User user = userClient.getUserById(userId); // Fetch user using Feign client
+        User user = cachedUserClient.getUserById(userId); // Served from the near-cache when possible
 
         if (user == null) {
             throw new UserIdNotFoundException(userId);
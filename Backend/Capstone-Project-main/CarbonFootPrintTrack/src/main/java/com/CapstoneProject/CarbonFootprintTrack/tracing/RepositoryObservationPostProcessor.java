@@ -0,0 +1,34 @@
+package com.CapstoneProject.CarbonFootprintTrack.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+// Adds RepositoryObservationInterceptor to every Spring Data repository proxy, so each repository call
+// shows up as a span under the request (or scheduled job) that made it.
+// The registry is looked up on first use: post-processors are created before most other beans.
+// UserManagement carries a copy of this and the interceptor, as it does of FileSpanExporter.
+@Component
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = SingletonSupplier.of(() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryObservationInterceptor(
+                            observationRegistry, information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
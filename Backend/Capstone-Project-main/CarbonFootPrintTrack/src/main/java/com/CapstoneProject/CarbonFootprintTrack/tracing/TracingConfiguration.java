@@ -0,0 +1,24 @@
+package com.CapstoneProject.CarbonFootprintTrack.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Span exporters are picked up by Spring Boot's OpenTelemetry setup; any number can be active at once.
+// OTLP to a local collector: management.otlp.tracing.endpoint. Spans to a file: carbontrack.tracing.file.
+@Configuration(proxyBeanMethods = false)
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "carbontrack.tracing", name = "file")
+    public SpanExporter fileSpanExporter(@Value("${carbontrack.tracing.file}") Path file,
+                                         ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}
@@ -0,0 +1,72 @@
+-- Tables as hibernate ddl-auto=update created them. IF NOT EXISTS lets this run as a no-op on schemas that
+-- predate the migrations (Flyway baselines those at version 0, so this script still runs there).
+-- The users table belongs to UserManagement and is created by its own migrations.
+
+CREATE TABLE IF NOT EXISTS carbondetails (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint,
+    name varchar(255),
+    today_date date,
+    city varchar(255),
+    transportation float(53) NOT NULL,
+    electricity float(53) NOT NULL,
+    wastage float(53) NOT NULL,
+    carbon_footprint float(53) NOT NULL,
+    total_carbon_footprint float(53) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_carbondetails_user_date (user_id, today_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS leaderboard (
+    user_id bigint NOT NULL,
+    name varchar(255),
+    today_date date,
+    city varchar(255),
+    total_carbon_footprint float(53) NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS carbon_rollup (
+    user_id bigint NOT NULL,
+    period enum ('DAY','MONTH','WEEK') NOT NULL,
+    period_start date NOT NULL,
+    transportation float(53) NOT NULL,
+    electricity float(53) NOT NULL,
+    wastage float(53) NOT NULL,
+    carbon_footprint float(53) NOT NULL,
+    submissions bigint NOT NULL,
+    PRIMARY KEY (period_start, user_id, period)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS emission_factor (
+    id bigint NOT NULL AUTO_INCREMENT,
+    category enum ('BUS','CAR','ELECTRICITY','ELECTRIC_CAR','FLIGHT','OTHER_TRANSPORT','TRAIN','WASTE') NOT NULL,
+    region varchar(255),
+    valid_from date,
+    factor float(53) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_emission_factor UNIQUE (category, region, valid_from)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS footprint_version (
+    user_id bigint NOT NULL,
+    version bigint NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id bigint NOT NULL AUTO_INCREMENT,
+    event_type varchar(40) NOT NULL,
+    idempotency_key varchar(64) NOT NULL,
+    user_id bigint,
+    delta float(53) NOT NULL,
+    status enum ('FAILED','PENDING','SENT') NOT NULL,
+    attempts integer NOT NULL,
+    created_at datetime(6),
+    next_attempt_at datetime(6),
+    last_error varchar(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_outbox_event_idempotency_key UNIQUE (idempotency_key),
+    INDEX idx_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,22 @@
+-- Indexes matched to the repository queries. QueryPlanIndexTests checks that each query's plan uses its index.
+
+-- CarbonTrackRepository.findLatestByUserId(Before) and findCategoriesByUserId: seek on user_id, range/order on
+-- today_date, and every selected column is in the index, so the history endpoints never touch the table rows.
+-- Supersedes the (user_id, today_date) index, which is its prefix. Schemas adopted from hibernate ddl-auto never
+-- had that index, so V8 in db/vendor drops it only where it exists.
+CREATE INDEX idx_carbondetails_user_date_cover
+    ON carbondetails (user_id, today_date, carbon_footprint, electricity, wastage, transportation);
+
+-- LeaderboardRepository.findAllByCity: the city's rows already in leaderboard order
+CREATE INDEX idx_leaderboard_city_total ON leaderboard (city, total_carbon_footprint);
+
+-- FootprintRollupRepository.findRange filters on user and period and ranges over period_start.
+-- Re-keying puts a user's buckets next to each other instead of spreading them across every period_start.
+ALTER TABLE carbon_rollup DROP PRIMARY KEY;
+ALTER TABLE carbon_rollup ADD PRIMARY KEY (user_id, period, period_start);
+
+-- OutboxEventRepository.findDue matches status and event_type, ranges over next_attempt_at;
+-- deleteByStatusCreatedBefore purges by status and age
+CREATE INDEX idx_outbox_status_type_next_attempt ON outbox_event (status, event_type, next_attempt_at);
+ALTER TABLE outbox_event DROP INDEX idx_outbox_status_next_attempt;
+CREATE INDEX idx_outbox_status_created ON outbox_event (status, created_at);
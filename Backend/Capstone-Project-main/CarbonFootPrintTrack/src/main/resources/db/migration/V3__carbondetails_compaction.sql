@@ -0,0 +1,25 @@
+-- carbondetails rows older than the retention horizon are compacted into one row per user per month.
+-- The history endpoints read carbondetails from compacted_before onwards and carbondetails_monthly before it.
+
+CREATE TABLE carbondetails_monthly (
+    user_id bigint NOT NULL,
+    month_start date NOT NULL,
+    transportation float(53) NOT NULL,
+    electricity float(53) NOT NULL,
+    wastage float(53) NOT NULL,
+    carbon_footprint float(53) NOT NULL,
+    submissions bigint NOT NULL,
+    PRIMARY KEY (user_id, month_start)
+) ENGINE=InnoDB;
+
+-- Single row holding the compaction watermark: every month before compacted_before lives in carbondetails_monthly
+CREATE TABLE carbondetails_retention (
+    id int NOT NULL,
+    compacted_before date NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+INSERT INTO carbondetails_retention (id, compacted_before) VALUES (1, '1000-01-01');
+
+-- Compaction finds, aggregates and purges rows by month
+CREATE INDEX idx_carbondetails_today_date ON carbondetails (today_date);
@@ -0,0 +1,7 @@
+-- Heartbeat the primary stamps so each service can measure how far its read replicas trail it
+-- (ReplicaRoutingDataSource). One row per service; UserManagement creates the same table.
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    source varchar(64) NOT NULL,
+    beat_at datetime(6) NOT NULL,
+    PRIMARY KEY (source)
+) ENGINE=InnoDB;
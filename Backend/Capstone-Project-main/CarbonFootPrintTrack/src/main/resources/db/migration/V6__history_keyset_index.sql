@@ -0,0 +1,5 @@
+-- The dashboard pages by (today_date, id): a user can submit several times a day, so the date alone is not a
+-- unique cursor. Putting id right after today_date lets that seek and order come straight from the covering index.
+ALTER TABLE carbondetails DROP INDEX idx_carbondetails_user_date_cover;
+CREATE INDEX idx_carbondetails_user_date_cover
+    ON carbondetails (user_id, today_date, id, carbon_footprint, electricity, wastage, transportation);
@@ -0,0 +1,4 @@
+-- Bumped by every committed change to a leaderboard row (JPA @Version). LeaderboardIndex applies an update
+-- only when its version is not older than the one it holds, so updates that commit-callback out of order
+-- cannot put an older total back.
+ALTER TABLE leaderboard ADD COLUMN version bigint NOT NULL DEFAULT 0;
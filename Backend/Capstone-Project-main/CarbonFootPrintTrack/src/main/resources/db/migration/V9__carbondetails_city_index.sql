@@ -0,0 +1,3 @@
+-- CarbonExportService with a city filter: the city's rows in id order, so an export page seeks past afterId
+-- instead of walking the primary key over every city
+CREATE INDEX idx_carbondetails_city_id ON carbondetails (city, id);
@@ -0,0 +1,88 @@
+package com.CapstoneProject.CarbonFootprintTrack.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.SenderContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserClientMetricsTests {
+
+	private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+	// Stands in for the tracing handler: injects a traceparent on start and keeps the finished contexts
+	private static final class PropagatingHandler implements ObservationHandler<SenderContext<Object>> {
+		final List<Observation.Context> stopped = new ArrayList<>();
+
+		@Override
+		public void onStart(SenderContext<Object> context) {
+			context.getSetter().set(context.getCarrier(), "traceparent", TRACEPARENT);
+		}
+
+		@Override
+		public void onStop(SenderContext<Object> context) {
+			stopped.add(context);
+		}
+
+		@Override
+		public boolean supportsContext(Observation.Context context) {
+			return context instanceof SenderContext;
+		}
+	}
+
+	private static Request request() {
+		return Request.create(Request.HttpMethod.GET, "http://localhost/users/1", Map.of("Accept", List.of("application/json")),
+				null, StandardCharsets.UTF_8, null);
+	}
+
+	@Test
+	void outgoingRequestCarriesTraceContextAndStatusIsTagged() throws IOException {
+		ObservationRegistry registry = ObservationRegistry.create();
+		PropagatingHandler handler = new PropagatingHandler();
+		registry.observationConfig().observationHandler(handler);
+		AtomicReference<Request> sent = new AtomicReference<>();
+		Client transport = (request, options) -> {
+			sent.set(request);
+			return Response.builder().status(200).request(request).headers(Map.of()).build();
+		};
+
+		new UserClientMetrics(registry).enrich(transport).execute(request(), new Request.Options());
+
+		assertEquals(List.of(TRACEPARENT), List.copyOf(sent.get().headers().get("traceparent")));
+		assertEquals(List.of("application/json"), List.copyOf(sent.get().headers().get("Accept")));
+		assertEquals(1, handler.stopped.size());
+		assertEquals("200", handler.stopped.get(0).getLowCardinalityKeyValue("status").getValue());
+	}
+
+	@Test
+	void transportFailureIsTaggedAsIoError() {
+		ObservationRegistry registry = ObservationRegistry.create();
+		PropagatingHandler handler = new PropagatingHandler();
+		registry.observationConfig().observationHandler(handler);
+		Client transport = (request, options) -> {
+			throw new ConnectException("refused");
+		};
+
+		assertThrows(ConnectException.class,
+				() -> new UserClientMetrics(registry).enrich(transport).execute(request(), new Request.Options()));
+
+		Observation.Context context = handler.stopped.get(0);
+		assertEquals("IO_ERROR", context.getLowCardinalityKeyValue("status").getValue());
+		assertTrue(context.getError() instanceof ConnectException);
+	}
+}
@@ -0,0 +1,188 @@
+package com.CapstoneProject.CarbonFootprintTrack.client;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserManagementUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import feign.FeignException;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the real Feign/circuit-breaker/bulkhead stack against a local HTTP stub standing in for UserManagement:
+// /users/1 answers, /users/2 is slower than the read timeout, /users/3 returns 503, and /users/4 returns the
+// 404 problem detail UserManagement's GlobalExceptionHandler sends for an unknown user.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.cloud.openfeign.client.config.UserManagement.read-timeout=1000",
+		"resilience4j.circuitbreaker.configs.default.sliding-window-size=4",
+		"resilience4j.circuitbreaker.configs.default.minimum-number-of-calls=4",
+		"resilience4j.circuitbreaker.configs.default.wait-duration-in-open-state=60s",
+		"resilience4j.bulkhead.configs.default.max-concurrent-calls=2"
+})
+class UserClientResilienceTests {
+
+	private static final HttpServer stub;
+	private static final AtomicInteger failingCalls = new AtomicInteger();
+	private static final AtomicInteger notFoundCalls = new AtomicInteger();
+	private static final String USER_NOT_FOUND = "{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,"
+			+ "\"detail\":\"User not found with id: 4\",\"instance\":\"/users/4\",\"description\":\"The user does not exist\"}";
+
+	static {
+		try {
+			stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		stub.setExecutor(Executors.newCachedThreadPool());
+		stub.createContext("/users/1", exchange -> respond(exchange, 200,
+				"{\"id\":1,\"name\":\"stub\",\"email\":\"stub@x.com\",\"city\":\"pune\",\"totalCarbonFootprint\":3.5}"));
+		stub.createContext("/users/2", exchange -> {
+			try {
+				Thread.sleep(3000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, "{\"id\":2}");
+		});
+		stub.createContext("/users/3", exchange -> {
+			failingCalls.incrementAndGet();
+			respond(exchange, 503, "{}");
+		});
+		stub.createContext("/users/4", exchange -> {
+			notFoundCalls.incrementAndGet();
+			respond(exchange, 404, "application/problem+json", USER_NOT_FOUND);
+		});
+		stub.start();
+	}
+
+	@DynamicPropertySource
+	static void userManagementUrl(DynamicPropertyRegistry registry) {
+		registry.add("carbontrack.users.url", () -> "http://localhost:" + stub.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.stop(0);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		respond(exchange, status, "application/json", body);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Autowired
+	private UserClient userClient;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@BeforeEach
+	void resetBreakers() {
+		circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+		failingCalls.set(0);
+		notFoundCalls.set(0);
+	}
+
+	@Test
+	void returnsUserFromUserManagement() {
+		assertEquals("stub", userClient.getUserById(1L).getName());
+	}
+
+	@Test
+	void slowCallTimesOutIntoFallback() {
+		long start = System.nanoTime();
+		UserManagementUnavailableException ex = assertThrows(UserManagementUnavailableException.class,
+				() -> userClient.getUserById(2L));
+		assertTrue(System.nanoTime() - start < 2_500_000_000L, "call should give up at the read timeout");
+		assertTrue(ex.getCause() != null);
+	}
+
+	@Test
+	void circuitOpensAfterRepeatedFailures() {
+		for (int i = 0; i < 4; i++) {
+			assertThrows(RuntimeException.class, () -> userClient.getUserById(3L));
+		}
+		assertEquals(4, failingCalls.get());
+
+		UserManagementUnavailableException ex = assertThrows(UserManagementUnavailableException.class,
+				() -> userClient.getUserById(3L));
+		assertInstanceOf(CallNotPermittedException.class, ex.getCause());
+		assertEquals(4, failingCalls.get(), "an open circuit must not reach UserManagement");
+	}
+
+	@Test
+	void clientErrorsDoNotOpenTheCircuit() {
+		for (int i = 0; i < 6; i++) {
+			assertThrows(FeignException.NotFound.class, () -> userClient.getUserById(4L));
+		}
+
+		assertEquals(6, notFoundCalls.get());
+		assertTrue(circuitBreakerRegistry.getAllCircuitBreakers().stream()
+				.allMatch(breaker -> breaker.getState() == CircuitBreaker.State.CLOSED));
+		assertEquals("stub", userClient.getUserById(1L).getName());
+	}
+
+	@Test
+	void bulkheadShedsCallsBeyondTheConcurrencyLimit() throws InterruptedException {
+		int callers = 6;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Throwable> failures = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					userClient.getUserById(2L);
+				} catch (Throwable t) {
+					synchronized (failures) {
+						failures.add(t);
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long shed = failures.stream()
+				.filter(t -> t instanceof UserManagementUnavailableException && t.getCause() instanceof BulkheadFullException)
+				.count();
+		assertEquals(callers, failures.size());
+		assertTrue(shed >= 1, "at most two calls may be in flight at once");
+	}
+}
@@ -0,0 +1,121 @@
+package com.CapstoneProject.CarbonFootprintTrack.controller;
+
+import com.CapstoneProject.CarbonFootprintTrack.repository.OutboxEventRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Submits through the real Feign client against a stub answering like UserManagement:
+// /users/1 exists, any other id gets the 404 problem detail UserManagement sends for an unknown user.
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "carbontrack.outbox.poll-interval-ms=3600000")
+class CalculateAndSubmitTests {
+
+	private static final HttpServer stub;
+
+	static {
+		try {
+			stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		stub.createContext("/users/", exchange -> {
+			String id = exchange.getRequestURI().getPath().substring("/users/".length());
+			if (id.equals("1")) {
+				respond(exchange, 200, "application/json",
+						"{\"id\":1,\"name\":\"stub\",\"email\":\"stub@x.com\",\"city\":\"pune\",\"totalCarbonFootprint\":0}");
+			} else {
+				respond(exchange, 404, "application/problem+json", "{\"type\":\"about:blank\",\"title\":\"Not Found\","
+						+ "\"status\":404,\"detail\":\"User not found with id: " + id + "\",\"instance\":\"/users/" + id + "\","
+						+ "\"description\":\"The user does not exist\"}");
+			}
+		});
+		stub.start();
+	}
+
+	@DynamicPropertySource
+	static void userManagementUrl(DynamicPropertyRegistry registry) {
+		registry.add("carbontrack.users.url", () -> "http://localhost:" + stub.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.stop(0);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clear() {
+		outboxEventRepository.deleteAllInBatch();
+		jdbcTemplate.update("DELETE FROM carbondetails");
+		jdbcTemplate.update("DELETE FROM leaderboard");
+	}
+
+	private static String form(long userId) {
+		return "{\"userId\":" + userId + ",\"city\":\"pune\",\"name\":\"stub\",\"prevWatts\":10,\"todayWatts\":20,"
+				+ "\"transportations\":[{\"mode\":\"car\",\"distance\":10,\"time\":1}],\"wastages\":[]}";
+	}
+
+	private int count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+	}
+
+	@Test
+	void unknownUserIsNotFoundAndNothingIsWritten() throws Exception {
+		mockMvc.perform(post("/carbonTrack/calculateAndSubmit").contentType(MediaType.APPLICATION_JSON).content(form(9)))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string(" User with UserId : 9 is not available"));
+
+		assertEquals(0, count("carbondetails"));
+		assertEquals(0, count("leaderboard"));
+		assertEquals(0, outboxEventRepository.count());
+	}
+
+	@Test
+	void knownUserIsSubmittedWithOneOutboxDelta() throws Exception {
+		mockMvc.perform(post("/carbonTrack/calculateAndSubmit").contentType(MediaType.APPLICATION_JSON).content(form(1)))
+				.andExpect(status().isOk());
+
+		assertEquals(1, count("carbondetails"));
+		assertEquals(1, outboxEventRepository.count());
+	}
+}
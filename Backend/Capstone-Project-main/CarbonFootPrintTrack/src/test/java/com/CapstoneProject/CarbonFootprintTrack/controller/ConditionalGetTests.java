@@ -0,0 +1,156 @@
+package com.CapstoneProject.CarbonFootprintTrack.controller;
+
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.repository.OutboxEventRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs on a user's history and on a city leaderboard. Every SQL statement Hibernate prepares is
+// recorded, so a 304 can be shown to have been answered from the version stamp without reading carbondetails.
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+		"carbontrack.outbox.poll-interval-ms=3600000",
+		"carbontrack.http.leaderboard-max-age=7s",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.CapstoneProject.CarbonFootprintTrack.controller.ConditionalGetTests$Statements"
+})
+class ConditionalGetTests {
+
+	// Hibernate's statement inspector; remembers every SQL statement Hibernate prepared
+	public static class Statements implements StatementInspector {
+		static final List<String> sql = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			Statements.sql.add(sql);
+			return sql;
+		}
+
+		static boolean touched(String table) {
+			return sql.stream().anyMatch(statement -> statement.toLowerCase().contains(table));
+		}
+	}
+
+	private static final String DASHBOARD = "/carbonTrack/user/1/dashboard";
+	private static final String LEADERBOARD = "/carbonTrack/leaderBoard/pune";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserClient userClient;
+
+	@BeforeEach
+	void clear() {
+		outboxEventRepository.deleteAllInBatch();
+		jdbcTemplate.update("DELETE FROM carbondetails");
+		jdbcTemplate.update("DELETE FROM leaderboard");
+		jdbcTemplate.update("DELETE FROM footprint_version");
+		User known = new User();
+		known.setId(1L);
+		known.setCity("pune");
+		when(userClient.getUserById(1L)).thenReturn(known);
+	}
+
+	private void submit() throws Exception {
+		mockMvc.perform(post("/carbonTrack/calculateAndSubmit").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":1,\"city\":\"pune\",\"name\":\"stub\",\"prevWatts\":10,\"todayWatts\":20,"
+								+ "\"transportations\":[{\"mode\":\"car\",\"distance\":10,\"time\":1}],\"wastages\":[]}"))
+				.andExpect(status().isOk());
+	}
+
+	private String etag(String path) throws Exception {
+		return mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void aCurrentHistoryTagIsAnsweredWithoutReadingCarbondetails() throws Exception {
+		submit();
+		Statements.sql.clear();
+		String etag = mockMvc.perform(get(DASHBOARD))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertTrue(etag.startsWith("W/\"u"), etag);
+		// The 200 did read the rows, so the inspector sees the history queries
+		assertTrue(Statements.touched("carbondetails"));
+
+		Statements.sql.clear();
+		mockMvc.perform(get(DASHBOARD).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andExpect(content().string(""));
+		assertFalse(Statements.touched("carbondetails"), () -> String.join("\n", Statements.sql));
+	}
+
+	@Test
+	void aSubmissionChangesTheHistoryTag() throws Exception {
+		String before = etag(DASHBOARD);
+
+		submit();
+		String after = mockMvc.perform(get(DASHBOARD).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(before, after);
+
+		mockMvc.perform(get(DASHBOARD).header(HttpHeaders.IF_NONE_MATCH, after))
+				.andExpect(status().isNotModified());
+		// Every history endpoint shares the user's tag
+		mockMvc.perform(get("/carbonTrack/user/1/electricity").header(HttpHeaders.IF_NONE_MATCH, after))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void leaderboardsArePublicForTheConfiguredMaxAgeAndChangeTagOnSubmission() throws Exception {
+		String before = mockMvc.perform(get(LEADERBOARD))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=7, public"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Statements.sql.clear();
+		mockMvc.perform(get(LEADERBOARD).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=7, public"));
+		assertTrue(Statements.sql.isEmpty(), () -> String.join("\n", Statements.sql));
+
+		submit();
+		mockMvc.perform(get(LEADERBOARD).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=7, public"));
+		assertNotEquals(before, etag(LEADERBOARD));
+	}
+}
@@ -0,0 +1,164 @@
+package com.CapstoneProject.CarbonFootprintTrack.datasource;
+
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.entities.CarbonFootprintForm;
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.service.CarbonTrackService;
+import com.CapstoneProject.CarbonFootprintTrack.service.ResourceVersionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+// Two H2 databases stand in for a MySQL primary and its replica. Replication is played by the test: it copies the
+// primary's heartbeat row to the replica (or an older one, to fake lag), and gives each database a different
+// carbondetails row for the same user so the dashboard shows which one a read went to.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.datasource.replica-urls=" + ReplicaRoutingTests.REPLICA_URL,
+		"carbontrack.datasource.max-lag=2s",
+		"carbontrack.datasource.lag-check-interval=1h"
+})
+class ReplicaRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	private static final Long USER = 5L;
+	private static final Long SUBMITTER = 8L; // Stays on the primary for the rest of the run once it has submitted
+	private static final String SOURCE = "CarbonFootprintTrack";
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+
+	@Autowired
+	private ReplicaRoutingDataSource routing;
+
+	@Autowired
+	private CarbonTrackService carbonTrackService;
+
+	@Autowired
+	private ResourceVersionService resourceVersionService;
+
+	@Autowired
+	private JdbcTemplate primary;
+
+	@MockBean
+	private UserClient userClient;
+
+	private JdbcTemplate replica;
+
+	@BeforeAll
+	static void createReplicaSchema() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+			for (String migration : List.of("V1__baseline_schema.sql", "V2__query_indexes.sql",
+					"V3__carbondetails_compaction.sql", "V5__replica_heartbeat.sql",
+					"V6__history_keyset_index.sql", "V7__leaderboard_version.sql")) {
+				ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/" + migration));
+			}
+		}
+	}
+
+	@BeforeEach
+	void seed() {
+		replica = new JdbcTemplate(routing.getReplicas().get(0).getDataSource());
+		for (JdbcTemplate database : List.of(primary, replica)) {
+			database.update("DELETE FROM carbondetails WHERE user_id IN (?, ?)", USER, SUBMITTER);
+			database.update("DELETE FROM footprint_version WHERE user_id IN (?, ?)", USER, SUBMITTER);
+		}
+		for (Long userId : List.of(USER, SUBMITTER)) {
+			insertFootprint(primary, userId, 7);
+			insertFootprint(replica, userId, 42);
+		}
+		primary.update("INSERT INTO replica_heartbeat (source, beat_at) VALUES (?, CURRENT_TIMESTAMP(6)) " +
+				"ON DUPLICATE KEY UPDATE beat_at = CURRENT_TIMESTAMP(6)", SOURCE);
+	}
+
+	private static void insertFootprint(JdbcTemplate database, Long userId, double total) {
+		database.update("INSERT INTO carbondetails (user_id, name, today_date, city, transportation, electricity, wastage, " +
+				"carbon_footprint, total_carbon_footprint) VALUES (?, 'user', ?, 'pune', 0, 0, 0, ?, 0)", userId, DAY, total);
+	}
+
+	// Replicate the primary's heartbeat, optionally as it was lagMillis ago
+	private void replicate(long lagMillis) {
+		Timestamp beat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE source = ?", Timestamp.class, SOURCE);
+		replica.update("DELETE FROM replica_heartbeat WHERE source = ?", SOURCE);
+		replica.update("INSERT INTO replica_heartbeat (source, beat_at) VALUES (?, ?)", SOURCE,
+				new Timestamp(beat.getTime() - lagMillis));
+		routing.checkLag();
+	}
+
+	private List<Double> dashboard(Long userId) {
+		return carbonTrackService.getDashboard(userId, null, null, 30).stream()
+				.map(entry -> entry.getTotalCarbonFootprint())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void readOnlyWorkGoesToAReplicaThatIsCaughtUp() {
+		replicate(0);
+
+		assertTrue(routing.getReplicas().get(0).isUsable());
+		assertEquals(List.of(42.0), dashboard(USER));
+	}
+
+	@Test
+	void laggingReplicaIsTakenOutOfRotation() {
+		replicate(10_000);
+
+		assertFalse(routing.getReplicas().get(0).isUsable());
+		assertEquals(List.of(7.0), dashboard(USER));
+
+		replicate(0);
+		assertEquals(List.of(42.0), dashboard(USER));
+	}
+
+	@Test
+	void historyETagComesFromTheDatabaseThatServedTheBody() {
+		replicate(0);
+		// The replica has not received the primary's latest bump yet
+		primary.update("INSERT INTO footprint_version (user_id, version) VALUES (?, 3)", USER);
+		replica.update("INSERT INTO footprint_version (user_id, version) VALUES (?, 2)", USER);
+
+		assertEquals("W/\"u2\" [42.0]", resourceVersionService.withUserETag(USER, etag -> etag + " " + dashboard(USER)));
+
+		replicate(10_000);
+		assertEquals("W/\"u3\" [7.0]", resourceVersionService.withUserETag(USER, etag -> etag + " " + dashboard(USER)));
+	}
+
+	@Test
+	void submitterReadsTheirOwnWriteFromThePrimary() {
+		replicate(0);
+
+		assertEquals(List.of(42.0), dashboard(SUBMITTER));
+		when(userClient.getUserById(SUBMITTER)).thenReturn(new User());
+		CarbonFootprintForm form = new CarbonFootprintForm();
+		form.setUserId(SUBMITTER);
+		form.setName("user8");
+		form.setCity("pune");
+		carbonTrackService.calculateAndSubmit(form);
+
+		// The new row and the primary's older one; the replica has neither
+		List<Double> own = dashboard(SUBMITTER);
+		assertEquals(2, own.size());
+		assertEquals(7.0, own.get(1));
+		// Everyone else keeps reading from the replica
+		assertEquals(List.of(42.0), dashboard(USER));
+	}
+}
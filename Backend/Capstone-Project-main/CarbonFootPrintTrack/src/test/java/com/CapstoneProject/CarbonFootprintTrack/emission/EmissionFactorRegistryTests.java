@@ -0,0 +1,148 @@
+package com.CapstoneProject.CarbonFootprintTrack.emission;
+
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionCategory;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.CapstoneProject.CarbonFootprintTrack.emission.EmissionFactorTable.GLOBAL_REGION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// The expected factors are literals on purpose: they are the values of the switch that calculateAndSubmit used
+// before the emission_factor table existed, and an empty table must keep producing exactly those.
+@ActiveProfiles("test")
+@SpringBootTest(properties = "carbontrack.outbox.poll-interval-ms=3600000")
+class EmissionFactorRegistryTests {
+
+	private static final long DAY = LocalDate.of(2024, 6, 1).toEpochDay();
+
+	@Autowired
+	private EmissionFactorRegistry emissionFactorRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserClient userClient;
+
+	@BeforeEach
+	void clear() {
+		jdbcTemplate.update("DELETE FROM emission_factor");
+		emissionFactorRegistry.reload();
+	}
+
+	private double transport(String mode) {
+		EmissionFactorTable table = emissionFactorRegistry.current();
+		return table.factor(EmissionCategory.fromTransportMode(mode), table.regionOf("pune"), DAY);
+	}
+
+	private static EmissionFactor row(EmissionCategory category, String region, LocalDate validFrom, double factor) {
+		return new EmissionFactor(null, category, region, validFrom, factor, null);
+	}
+
+	@Test
+	void anEmptyTableKeepsTheBaselineFactors() {
+		EmissionFactorTable table = emissionFactorRegistry.current();
+		assertEquals(0, table.size());
+
+		assertEquals(0.2, transport("car"));
+		assertEquals(0.1, transport("electric car"));
+		assertEquals(0.05, transport("train"));
+		assertEquals(0.3, transport("flight"));
+		assertEquals(0.15, transport("bus"));
+		assertEquals(0.2, table.factor(EmissionCategory.OTHER_TRANSPORT, GLOBAL_REGION, DAY));
+		assertEquals(0.5, table.factor(EmissionCategory.WASTE, GLOBAL_REGION, DAY));
+		assertEquals(0.7, table.factor(EmissionCategory.ELECTRICITY, GLOBAL_REGION, DAY));
+	}
+
+	@Test
+	void unknownModesUseTheOtherTransportFactor() {
+		assertEquals(EmissionCategory.CAR, EmissionCategory.fromTransportMode("Car"));
+		assertEquals(EmissionCategory.ELECTRIC_CAR, EmissionCategory.fromTransportMode("ELECTRIC CAR"));
+		assertEquals(EmissionCategory.OTHER_TRANSPORT, EmissionCategory.fromTransportMode("skateboard"));
+		assertEquals(EmissionCategory.OTHER_TRANSPORT, EmissionCategory.fromTransportMode(""));
+		assertEquals(EmissionCategory.OTHER_TRANSPORT, EmissionCategory.fromTransportMode(null));
+		assertEquals(0.2, transport("skateboard"));
+
+		// A configured OTHER_TRANSPORT factor is what unknown modes pick up, not the car factor
+		emissionFactorRegistry.save(row(EmissionCategory.OTHER_TRANSPORT, null, null, 0.12));
+		assertEquals(0.12, transport("skateboard"));
+		assertEquals(0.2, transport("car"));
+	}
+
+	@Test
+	void lookupsFallBackFromRegionToGlobalToDefault() {
+		EmissionFactorTable table = EmissionFactorTable.of(List.of(
+				row(EmissionCategory.CAR, null, null, 0.25),
+				row(EmissionCategory.CAR, "pune", LocalDate.of(2024, 1, 1), 0.18),
+				row(EmissionCategory.CAR, "pune", LocalDate.of(2024, 7, 1), 0.16),
+				row(EmissionCategory.BUS, "pune", null, 0.12)));
+		int pune = table.regionOf("pune");
+
+		assertEquals(0.18, table.factor(EmissionCategory.CAR, pune, DAY));
+		assertEquals(0.16, table.factor(EmissionCategory.CAR, pune, LocalDate.of(2024, 7, 1).toEpochDay()));
+		// Before the first regional row and in an unknown city, the global row applies
+		assertEquals(0.25, table.factor(EmissionCategory.CAR, pune, LocalDate.of(2023, 12, 31).toEpochDay()));
+		assertEquals(GLOBAL_REGION, table.regionOf("delhi"));
+		assertEquals(GLOBAL_REGION, table.regionOf("Pune"));
+		assertEquals(0.25, table.factor(EmissionCategory.CAR, table.regionOf("delhi"), DAY));
+		// No regional or global row: the built-in default
+		assertEquals(0.12, table.factor(EmissionCategory.BUS, pune, DAY));
+		assertEquals(0.15, table.factor(EmissionCategory.BUS, GLOBAL_REGION, DAY));
+		assertEquals(0.3, table.factor(EmissionCategory.FLIGHT, pune, DAY));
+	}
+
+	@Test
+	void aReloadReplacesTheTable() {
+		EmissionFactorTable before = emissionFactorRegistry.current();
+
+		EmissionFactor saved = emissionFactorRegistry.save(row(EmissionCategory.CAR, null, null, 0.25));
+		EmissionFactorTable after = emissionFactorRegistry.current();
+		assertNotSame(before, after);
+		assertEquals(0.25, transport("car"));
+		// Calculations already holding the old snapshot keep seeing a consistent set of factors
+		assertEquals(0.2, before.factor(EmissionCategory.CAR, GLOBAL_REGION, DAY));
+
+		emissionFactorRegistry.delete(saved.getId());
+		assertEquals(0, emissionFactorRegistry.current().size());
+		assertEquals(0.2, transport("car"));
+	}
+
+	@Test
+	void aRefreshPicksUpRowsWrittenOutsideTheRegistry() {
+		jdbcTemplate.update("INSERT INTO emission_factor (category, region, valid_from, factor, updated_at) "
+				+ "VALUES ('TRAIN', 'pune', NULL, 0.04, CURRENT_TIMESTAMP)");
+		assertEquals(0.05, transport("train"));
+
+		EmissionFactorTable before = emissionFactorRegistry.current();
+		emissionFactorRegistry.refresh();
+		assertNotSame(before, emissionFactorRegistry.current());
+		assertEquals(0.04, transport("train"));
+
+		// Nothing changed since: the table is kept
+		EmissionFactorTable current = emissionFactorRegistry.current();
+		emissionFactorRegistry.refresh();
+		assertSame(current, emissionFactorRegistry.current());
+	}
+
+	@Test
+	void aRefreshPicksUpAFactorChangedWithoutTouchingUpdatedAt() {
+		emissionFactorRegistry.save(row(EmissionCategory.BUS, null, null, 0.12));
+		assertEquals(0.12, transport("bus"));
+
+		jdbcTemplate.update("UPDATE emission_factor SET factor = 0.11 WHERE category = 'BUS'");
+		emissionFactorRegistry.refresh();
+		assertEquals(0.11, transport("bus"));
+	}
+}
@@ -0,0 +1,75 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CityLeaderboardTests {
+
+	private static leaderBoard entry(long userId, double total) {
+		return new leaderBoard(userId, "user" + userId, null, "pune", total);
+	}
+
+	@Test
+	void ranksMatchSortedReferenceUnderRandomUpdates() {
+		CityLeaderboard leaderboard = new CityLeaderboard();
+		Map<Long, Double> reference = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 5000; i++) {
+			long userId = random.nextInt(300);
+			if (random.nextInt(10) == 0) {
+				leaderboard.remove(userId);
+				reference.remove(userId);
+			} else {
+				double total = random.nextInt(50); // Small range to force plenty of ties
+				leaderboard.upsert(entry(userId, total));
+				reference.put(userId, total);
+			}
+		}
+
+		List<Long> expected = reference.entrySet().stream()
+				.sorted(Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue).reversed()
+						.thenComparing(Map.Entry::getKey))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+
+		assertEquals(expected.size(), leaderboard.size());
+		List<Long> actual = new ArrayList<>();
+		leaderboard.range(0, Integer.MAX_VALUE).forEach(ranked -> actual.add(ranked.getEntry().getUserId()));
+		assertEquals(expected, actual);
+
+		for (int rank = 1; rank <= expected.size(); rank++) {
+			Long userId = expected.get(rank - 1);
+			assertEquals(rank, leaderboard.rankOf(userId));
+			assertEquals(userId, leaderboard.range(rank - 1, 1).get(0).getEntry().getUserId());
+		}
+	}
+
+	@Test
+	void aroundReturnsNeighboursClippedAtTheEdges() {
+		CityLeaderboard leaderboard = new CityLeaderboard();
+		for (long userId = 1; userId <= 10; userId++) {
+			leaderboard.upsert(entry(userId, 100 - userId));
+		}
+
+		List<CityLeaderboard.RankedEntry> top = leaderboard.around(1L, 2);
+		assertEquals(List.of(1L, 2L, 3L), top.stream().map(r -> r.getRank()).collect(Collectors.toList()));
+
+		List<CityLeaderboard.RankedEntry> middle = leaderboard.around(5L, 2);
+		assertEquals(List.of(3L, 4L, 5L, 6L, 7L), middle.stream().map(r -> r.getEntry().getUserId()).collect(Collectors.toList()));
+
+		assertTrue(leaderboard.around(99L, 2).isEmpty());
+		assertEquals(0, leaderboard.rankOf(99L));
+	}
+}
@@ -0,0 +1,191 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.LeaderBoardDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.RankedLeaderBoardDto;
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardBroadcasterTests {
+
+	// Records what the broadcaster writes instead of writing to a connection. Sends can be made to fail,
+	// or to block until released, like a client that stopped reading.
+	private static class RecordingEmitter extends SseEmitter {
+		final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+		final AtomicInteger sends = new AtomicInteger();
+		final CountDownLatch stalled = new CountDownLatch(1);
+		volatile boolean stalling;
+		volatile boolean failing;
+		volatile boolean completed;
+
+		@Override
+		public void send(Set<DataWithMediaType> items) throws IOException {
+			sends.incrementAndGet();
+			if (stalling) {
+				try {
+					stalled.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			events.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()));
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		String next() throws InterruptedException {
+			return events.poll(5, TimeUnit.SECONDS);
+		}
+	}
+
+	private final LeaderboardIndex index = new LeaderboardIndex();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LeaderboardBroadcaster broadcaster = new LeaderboardBroadcaster(index, new ObjectMapper(), 100,
+			Duration.ofMinutes(30), Duration.ofHours(1), 2, 2, meterRegistry);
+	private long version;
+
+	@AfterEach
+	void shutdown() {
+		broadcaster.shutdown();
+	}
+
+	private void score(long userId, double total) {
+		index.update(new leaderBoard(userId, "user" + userId, null, "pune", total, ++version));
+	}
+
+	private double subscribers() {
+		return meterRegistry.get("leaderboard.stream.subscribers").gauge().value();
+	}
+
+	private static void awaitSends(RecordingEmitter emitter, int sends) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (emitter.sends.get() < sends && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(sends, emitter.sends.get());
+	}
+
+	@Test
+	void aSubscriberGetsTheSnapshotThenADeltaForEachTickWithChanges() throws InterruptedException {
+		score(1, 10);
+		score(2, 5);
+		RecordingEmitter emitter = new RecordingEmitter();
+
+		broadcaster.subscribe("pune", 2, emitter);
+		assertTrue(emitter.next().startsWith("event:snapshot"));
+
+		score(2, 20);
+		broadcaster.publishChanges();
+		String delta = emitter.next();
+		assertTrue(delta.startsWith("event:delta"));
+		assertTrue(delta.contains("\"userId\":2"));
+
+		broadcaster.publishChanges();
+		assertNull(emitter.events.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void aSubscriberWhoseConnectionFailedIsRemovedAndItsGroupRetired() throws InterruptedException {
+		score(1, 10);
+		RecordingEmitter emitter = new RecordingEmitter();
+		broadcaster.subscribe("pune", 1, emitter);
+		emitter.next();
+		emitter.failing = true;
+
+		score(1, 11);
+		broadcaster.publishChanges();
+		awaitSends(emitter, 2);
+		score(1, 12);
+		broadcaster.publishChanges();
+
+		assertEquals(0.0, subscribers());
+		broadcaster.publishChanges();
+		score(1, 13);
+		broadcaster.publishChanges();
+		assertEquals(2, emitter.sends.get());
+	}
+
+	@Test
+	void aStalledSubscriberNeitherHoldsUpTheTickNorOtherSubscribersAndIsDisconnected() throws InterruptedException {
+		score(1, 10);
+		RecordingEmitter stalled = new RecordingEmitter();
+		stalled.stalling = true;
+		RecordingEmitter healthy = new RecordingEmitter();
+		broadcaster.subscribe("pune", 1, stalled);
+		broadcaster.subscribe("pune", 1, healthy);
+		awaitSends(stalled, 1);
+		healthy.next();
+
+		// The first two deltas fill the stalled subscriber's queue, the third one overflows it
+		for (int total = 11; total <= 13; total++) {
+			score(1, total);
+			broadcaster.publishChanges();
+			assertTrue(healthy.next().contains("\"totalCarbonFootprint\":" + total + ".0"));
+		}
+
+		assertEquals(1.0, subscribers());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!stalled.completed && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(stalled.completed);
+		stalled.stalled.countDown();
+	}
+
+	private static RankedLeaderBoardDto ranked(long rank, long userId, double total) {
+		return new RankedLeaderBoardDto(rank, userId, "user" + userId, "pune", total);
+	}
+
+	@Test
+	void unchangedTopNProducesAnEmptyDelta() {
+		List<RankedLeaderBoardDto> top = List.of(ranked(1, 7, 30), ranked(2, 3, 20));
+		assertTrue(LeaderboardBroadcaster.diff(top, List.of(ranked(1, 7, 30), ranked(2, 3, 20))).isEmpty());
+	}
+
+	@Test
+	void deltaCarriesMovedEntrantsAndLeavers() {
+		List<RankedLeaderBoardDto> previous = List.of(ranked(1, 7, 30), ranked(2, 3, 20), ranked(3, 5, 10));
+		// User 9 enters at the top, 7 and 3 shift down a rank, 5 drops out of the top 3
+		List<RankedLeaderBoardDto> next = List.of(ranked(1, 9, 40), ranked(2, 7, 30), ranked(3, 3, 20));
+
+		LeaderBoardDeltaDto delta = LeaderboardBroadcaster.diff(previous, next);
+
+		assertEquals(next, delta.getChanged());
+		assertEquals(List.of(5L), delta.getRemoved());
+	}
+
+	@Test
+	void scoreChangeWithoutRankChangeIsSent() {
+		List<RankedLeaderBoardDto> previous = List.of(ranked(1, 7, 30), ranked(2, 3, 20));
+		List<RankedLeaderBoardDto> next = List.of(ranked(1, 7, 35), ranked(2, 3, 20));
+
+		LeaderBoardDeltaDto delta = LeaderboardBroadcaster.diff(previous, next);
+
+		assertEquals(List.of(ranked(1, 7, 35)), delta.getChanged());
+		assertTrue(delta.getRemoved().isEmpty());
+	}
+}
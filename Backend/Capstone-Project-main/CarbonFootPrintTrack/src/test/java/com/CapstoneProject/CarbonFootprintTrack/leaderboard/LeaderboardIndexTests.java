@@ -0,0 +1,39 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardIndexTests {
+
+	private static leaderBoard entry(String city, double total, long version) {
+		return new leaderBoard(1L, "user1", null, city, total, version);
+	}
+
+	private static double totalIn(LeaderboardIndex index, String city) {
+		return index.city(city).range(0, 1).get(0).getEntry().getTotalCarbonFootprint();
+	}
+
+	@Test
+	void anUpdateOlderThanTheAppliedOneIsIgnored() {
+		LeaderboardIndex index = new LeaderboardIndex();
+
+		index.update(entry("pune", 12, 2));
+		index.update(entry("pune", 5, 1)); // Commit callback of the earlier submission running late
+
+		assertEquals(12.0, totalIn(index, "pune"));
+	}
+
+	@Test
+	void aStaleCityMoveDoesNotUndoTheNewerPlacement() {
+		LeaderboardIndex index = new LeaderboardIndex();
+
+		index.update(entry("pune", 3, 0));
+		index.update(entry("delhi", 9, 2));
+		index.update(entry("pune", 7, 1));
+
+		assertEquals(0, index.city("pune").size());
+		assertEquals(9.0, totalIn(index, "delhi"));
+	}
+}
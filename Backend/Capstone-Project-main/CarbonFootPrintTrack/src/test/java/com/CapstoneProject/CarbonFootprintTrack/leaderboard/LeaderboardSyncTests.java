@@ -0,0 +1,89 @@
+package com.CapstoneProject.CarbonFootprintTrack.leaderboard;
+
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.service.LeaderBoardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Rows are written with plain SQL, the way another instance's commits look to this one: the index only
+// learns about them through sync. Each test uses its own city because the index outlives the test methods.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.outbox.poll-interval-ms=3600000",
+		"carbontrack.leaderboard.sync-interval-ms=3600000",
+		"carbontrack.leaderboard.warmup-page-size=7"
+})
+class LeaderboardSyncTests {
+
+	@Autowired
+	private LeaderboardIndex leaderboardIndex;
+
+	@Autowired
+	private LeaderBoardService leaderBoardService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserClient userClient;
+
+	private void insert(long userId, String city, double total) {
+		jdbcTemplate.update("INSERT INTO leaderboard (user_id, name, city, total_carbon_footprint, version) VALUES (?, ?, ?, ?, 0)",
+				userId, "user" + userId, city, total);
+	}
+
+	private List<Long> ranking(String city) {
+		return leaderBoardService.getLeaderBoard(city, 0, null).stream()
+				.map(leaderBoard::getUserId)
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void rowsCommittedElsewhereAreRankedAfterASync() {
+		insert(101, "nashik", 5);
+		insert(102, "nashik", 9);
+		leaderboardIndex.sync();
+		assertEquals(List.of(102L, 101L), ranking("nashik"));
+
+		// Another instance adds to 101's total and moves 102 to a different city
+		jdbcTemplate.update("UPDATE leaderboard SET total_carbon_footprint = 12, version = version + 1 WHERE user_id = 101");
+		jdbcTemplate.update("UPDATE leaderboard SET city = 'satara', version = version + 1 WHERE user_id = 102");
+		leaderboardIndex.sync();
+
+		assertEquals(List.of(101L), ranking("nashik"));
+		assertEquals(12.0, leaderboardIndex.city("nashik").range(0, 1).get(0).getEntry().getTotalCarbonFootprint());
+		assertEquals(List.of(102L), ranking("satara"));
+	}
+
+	@Test
+	void aRowWhoseVersionDidNotMoveIsLeftAlone() {
+		insert(201, "kolhapur", 5);
+		leaderboardIndex.sync();
+		long version = leaderboardIndex.city("kolhapur").version();
+
+		leaderboardIndex.sync();
+		assertEquals(version, leaderboardIndex.city("kolhapur").version());
+	}
+
+	@Test
+	void theWholeCityIsReturnedUnlessALimitIsGiven() {
+		for (long userId = 1000; userId < 1150; userId++) {
+			insert(userId, "solapur", userId);
+		}
+		leaderboardIndex.sync();
+
+		assertEquals(150, ranking("solapur").size());
+		assertEquals(140, leaderBoardService.getLeaderBoard("solapur", 10, null).size());
+		assertEquals(20, leaderBoardService.getLeaderBoard("solapur", 0, 20).size());
+	}
+}
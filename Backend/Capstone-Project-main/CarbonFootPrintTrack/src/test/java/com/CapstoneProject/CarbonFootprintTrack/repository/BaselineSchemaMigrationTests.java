@@ -0,0 +1,80 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the migrations, configured as in application.yml, over a database that already holds the tables
+// hibernate ddl-auto=update created before Flyway took over the schema.
+class BaselineSchemaMigrationTests {
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void baselineSchema() throws Exception {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		try (Connection connection = dataSource.getConnection()) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-hibernate-schema.sql"));
+		}
+	}
+
+	private Flyway flyway() {
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.table("flyway_history_carbontrack")
+				.baselineOnMigrate(true)
+				.baselineVersion("0")
+				.locations("classpath:db/migration", "classpath:db/vendor/h2")
+				.load();
+	}
+
+	private MigrateResult migrate() {
+		return flyway().migrate();
+	}
+
+	private List<String> indexes(String table) {
+		return jdbcTemplate.queryForList("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES "
+				+ "WHERE LOWER(TABLE_NAME) = ?", String.class, table);
+	}
+
+	@Test
+	void migratesASchemaThatNeverHadTheUserDateIndex() {
+		jdbcTemplate.update("INSERT INTO carbondetails (user_id, name, today_date, city, transportation, electricity, "
+				+ "wastage, carbon_footprint, total_carbon_footprint) VALUES (1, 'a', DATE '2024-05-01', 'pune', 1, 2, 3, 6, 0)");
+
+		MigrateResult result = migrate();
+
+		assertTrue(result.success);
+		assertEquals(0, flyway().info().pending().length);
+		List<String> carbondetails = indexes("carbondetails");
+		assertTrue(carbondetails.contains("idx_carbondetails_user_date_cover"));
+		assertFalse(carbondetails.contains("idx_carbondetails_user_date"));
+		assertTrue(indexes("leaderboard").contains("idx_leaderboard_city_total"));
+		assertEquals(6.0, jdbcTemplate.queryForObject("SELECT carbon_footprint FROM carbondetails", Double.class));
+	}
+
+	@Test
+	void dropsTheUserDateIndexWhereAnEarlierBuildCreatedIt() {
+		jdbcTemplate.execute("CREATE INDEX idx_carbondetails_user_date ON carbondetails (user_id, today_date)");
+
+		assertTrue(migrate().success);
+		List<String> carbondetails = indexes("carbondetails");
+		assertTrue(carbondetails.contains("idx_carbondetails_user_date_cover"));
+		assertFalse(carbondetails.contains("idx_carbondetails_user_date"));
+	}
+}
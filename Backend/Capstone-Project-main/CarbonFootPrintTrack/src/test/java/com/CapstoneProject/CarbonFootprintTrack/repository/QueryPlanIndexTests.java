@@ -0,0 +1,199 @@
+package com.CapstoneProject.CarbonFootprintTrack.repository;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprint;
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprintId;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollup;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollupId;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxEvent;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxStatus;
+import com.CapstoneProject.CarbonFootprintTrack.model.RollupPeriod;
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import com.CapstoneProject.CarbonFootprintTrack.service.CarbonExportService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Builds the schema from the Flyway migrations (Hibernate only validates it), runs each repository query once to
+// capture the SQL Hibernate generates, and checks that H2's plan for that SQL seeks through the intended index.
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.CapstoneProject.CarbonFootprintTrack.repository.QueryPlanIndexTests$LastStatement"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(CarbonExportService.class)
+class QueryPlanIndexTests {
+
+	// Hibernate's statement inspector; remembers the last SQL statement Hibernate prepared
+	public static class LastStatement implements StatementInspector {
+		static volatile String sql;
+
+		@Override
+		public String inspect(String sql) {
+			LastStatement.sql = sql;
+			return sql;
+		}
+	}
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+	@Autowired
+	private CarbonTrackRepository carbonTrackRepository;
+
+	@Autowired
+	private LeaderboardRepository leaderboardRepository;
+
+	@Autowired
+	private FootprintRollupRepository footprintRollupRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private CompactedFootprintRepository compactedFootprintRepository;
+
+	@Autowired
+	private CarbonExportService carbonExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		List<CarbonFootPrint> footprints = new ArrayList<>();
+		List<leaderBoard> leaderboards = new ArrayList<>();
+		List<FootprintRollup> rollups = new ArrayList<>();
+		List<CompactedFootprint> compacted = new ArrayList<>();
+		for (long userId = 1; userId <= 20; userId++) {
+			String city = userId % 2 == 0 ? "pune" : "delhi";
+			for (int day = 0; day < 10; day++) {
+				CarbonFootPrint footprint = new CarbonFootPrint(null, userId, "user" + userId, START.plusDays(day), city,
+						1, 2, 3, 6, 0);
+				footprints.add(footprint);
+				FootprintRollup rollup = new FootprintRollup(new FootprintRollupId(userId, RollupPeriod.DAY, START.plusDays(day)));
+				rollup.add(footprint);
+				rollups.add(rollup);
+			}
+			for (int month = 1; month <= 6; month++) {
+				compacted.add(new CompactedFootprint(new CompactedFootprintId(userId, START.minusMonths(month)), 1, 2, 3, 6, 10));
+			}
+			leaderboards.add(new leaderBoard(userId, "user" + userId, START, city, userId * 10.0));
+			outboxEventRepository.save(OutboxEvent.userFootprintDelta(userId, 6));
+		}
+		carbonTrackRepository.saveAllAndFlush(footprints);
+		leaderboardRepository.saveAllAndFlush(leaderboards);
+		footprintRollupRepository.saveAllAndFlush(rollups);
+		compactedFootprintRepository.saveAllAndFlush(compacted);
+		outboxEventRepository.flush();
+	}
+
+	@Test
+	void historyQueriesUseTheCoveringUserDateIndex() {
+		carbonTrackRepository.findLatestByUserId(3L, START, PageRequest.of(0, 30));
+		assertIndex("idx_carbondetails_user_date_cover", explain(3L, START, 0, 30));
+
+		carbonTrackRepository.findLatestByUserIdBefore(3L, START, START.plusDays(5), 100L, PageRequest.of(0, 30));
+		assertIndex("idx_carbondetails_user_date_cover", explain(3L, START, START.plusDays(5), START.plusDays(5), 100L, 0, 30));
+
+		carbonTrackRepository.findCategoriesByUserId(3L, START, START.plusDays(5));
+		assertIndex("idx_carbondetails_user_date_cover", explain(3L, START, START.plusDays(5)));
+	}
+
+	@Test
+	void compactedHistorySeeksOnThePrimaryKey() {
+		compactedFootprintRepository.findLatestByUserIdBefore(3L, START, PageRequest.of(0, 30));
+		assertIndex("primary_key", explain(3L, START, 0, 30));
+
+		compactedFootprintRepository.findCategoriesByUserId(3L, START.minusMonths(4), START);
+		assertIndex("primary_key", explain(3L, START.minusMonths(4), START));
+	}
+
+	@Test
+	void cityLeaderboardUsesTheCityTotalIndex() {
+		leaderboardRepository.findAllByCity("pune");
+		assertIndex("idx_leaderboard_city_total", explain("pune"));
+	}
+
+	@Test
+	void rollupRangeSeeksOnTheUserLeadingPrimaryKey() {
+		footprintRollupRepository.findRange(3L, RollupPeriod.DAY, START, START.plusDays(5));
+		assertIndex("primary_key", explain(3L, RollupPeriod.DAY.name(), START, START.plusDays(5)));
+		// H2 lists the seek conditions in query order, so the key order is checked on the schema
+		List<String> keyColumns = jdbcTemplate.queryForList("SELECT k.column_name FROM information_schema.key_column_usage k " +
+				"JOIN information_schema.table_constraints c ON c.constraint_name = k.constraint_name " +
+				"WHERE c.table_name = 'CARBON_ROLLUP' AND c.constraint_type = 'PRIMARY KEY' ORDER BY k.ordinal_position", String.class);
+		assertEquals(List.of("USER_ID", "PERIOD", "PERIOD_START"), keyColumns);
+	}
+
+	@Test
+	void outboxPollingAndPurgeUseStatusIndexes() {
+		LocalDateTime now = LocalDateTime.now();
+		outboxEventRepository.lockDue(OutboxEvent.USER_FOOTPRINT_DELTA, now, PageRequest.of(0, 500));
+		assertIndex("idx_outbox_status_type_next_attempt", explain(OutboxEvent.USER_FOOTPRINT_DELTA, now, 0, 500));
+
+		outboxEventRepository.deleteByStatusCreatedBefore(OutboxStatus.SENT, now);
+		assertIndex("idx_outbox_status_created", explain(OutboxStatus.SENT.name(), now));
+	}
+
+	@Test
+	void filteredExportsSeekThroughTheUserAndCityIndexes() {
+		carbonExportService.export(OutputStream.nullOutputStream(), CarbonExportService.Format.NDJSON, null, 3L, null,
+				null, null, 0);
+		assertIndex("idx_carbondetails_user_date_cover", explain(0L, 3L));
+
+		carbonExportService.export(OutputStream.nullOutputStream(), CarbonExportService.Format.NDJSON, null, null, "pune",
+				null, null, 0);
+		assertIndex("idx_carbondetails_city_id", explain(0L, "pune"));
+
+		carbonExportService.export(OutputStream.nullOutputStream(), CarbonExportService.Format.NDJSON, null, 3L, null,
+				START, START.plusDays(5), 0);
+		assertIndex("idx_carbondetails_user_date_cover", explain(0L, 3L, START, START.plusDays(5)));
+	}
+
+	// EXPLAIN of the last captured statement, with its parameters bound in order (paged queries end in offset, limit)
+	private String explain(Object... parameters) {
+		String sql = LastStatement.sql;
+		return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+			for (int i = 0; i < statement.getParameterMetaData().getParameterCount(); i++) {
+				statement.setObject(i + 1, parameters[i]);
+			}
+			try (ResultSet plan = statement.executeQuery()) {
+				plan.next();
+				return plan.getString(1);
+			}
+		});
+	}
+
+	// H2 names the index a table is read through in a comment after the table name
+	private static String indexComment(String plan) {
+		int start = plan.indexOf("/*");
+		return plan.substring(start, plan.indexOf("*/", start)).toLowerCase();
+	}
+
+	private static void assertIndex(String index, String plan) {
+		assertTrue(indexComment(plan).contains(index), plan);
+	}
+}
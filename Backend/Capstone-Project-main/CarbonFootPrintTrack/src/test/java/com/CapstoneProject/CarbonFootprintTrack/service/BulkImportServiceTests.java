@@ -0,0 +1,91 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.BulkImportResultDto;
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.repository.OutboxEventRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.outbox.poll-interval-ms=3600000",
+		"carbontrack.bulk.chunk-size=2"
+})
+class BulkImportServiceTests {
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserClient userClient;
+
+	@BeforeEach
+	void clear() {
+		outboxEventRepository.deleteAllInBatch();
+		jdbcTemplate.update("DELETE FROM carbondetails");
+		jdbcTemplate.update("DELETE FROM leaderboard");
+	}
+
+	private static FeignException notFound(long userId) {
+		Request request = Request.create(Request.HttpMethod.GET, "/users/" + userId, Map.of(), null,
+				StandardCharsets.UTF_8, null);
+		return FeignException.errorStatus("UserClient#getUserById(Long)",
+				Response.builder().status(404).reason("Not Found").request(request).headers(Map.of()).build());
+	}
+
+	private static String form(long userId, String date) {
+		return "{\"userId\":" + userId + ",\"date\":\"" + date + "\",\"city\":\"pune\",\"name\":\"n" + userId + "\","
+				+ "\"prevWatts\":0,\"todayWatts\":10}\n";
+	}
+
+	private List<Long> userIds(String table) {
+		return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM " + table + " ORDER BY user_id", Long.class);
+	}
+
+	@Test
+	void recordsForUnknownUsersAreRejectedAndEachUserIsCheckedOnce() throws Exception {
+		User known = new User();
+		known.setId(1L);
+		when(userClient.getUserById(1L)).thenReturn(known);
+		when(userClient.getUserById(9L)).thenThrow(notFound(9));
+		String ndjson = form(1, "2024-05-01") + form(9, "2024-05-01") + form(1, "2024-05-02")
+				+ form(9, "2024-05-02") + form(9, "2024-05-03");
+
+		BulkImportResultDto result = bulkImportService.importForms(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, result.getImported());
+		assertEquals(3, result.getRejected());
+		assertEquals(1, result.getUsers());
+		assertEquals(List.of(9L), result.getUnknownUserIds());
+		verify(userClient, times(1)).getUserById(9L);
+		assertEquals(List.of(1L), userIds("carbondetails"));
+		assertEquals(List.of(1L), userIds("leaderboard"));
+		assertEquals(List.of(1L), userIds("outbox_event"));
+	}
+}
@@ -0,0 +1,161 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserManagementUnavailableException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.FootprintDeltaDto;
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxEvent;
+import com.CapstoneProject.CarbonFootprintTrack.model.OutboxStatus;
+import com.CapstoneProject.CarbonFootprintTrack.repository.OutboxEventRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.outbox.poll-interval-ms=3600000",
+		"carbontrack.outbox.batch-size=3",
+		"carbontrack.outbox.max-attempts=2",
+		"carbontrack.outbox.retry-backoff-ms=0"
+})
+class OutboxDispatcherTests {
+
+	@Autowired
+	private OutboxDispatcher outboxDispatcher;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@MockBean
+	private UserClient userClient;
+
+	private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void clear() {
+		outboxEventRepository.deleteAllInBatch();
+		delivered.clear();
+	}
+
+	private List<OutboxEvent> pending(int count) {
+		List<OutboxEvent> events = new ArrayList<>();
+		for (long userId = 1; userId <= count; userId++) {
+			events.add(OutboxEvent.userFootprintDelta(userId, 2));
+		}
+		return outboxEventRepository.saveAll(events);
+	}
+
+	private OutboxEvent reload(OutboxEvent event) {
+		return outboxEventRepository.findById(event.getId()).orElseThrow();
+	}
+
+	private static List<String> keys(List<OutboxEvent> events) {
+		return events.stream().map(OutboxEvent::getIdempotencyKey).collect(Collectors.toList());
+	}
+
+	private void accept(String... rejectedKeys) {
+		when(userClient.addFootprintDeltas(anyList())).thenAnswer(invocation -> {
+			List<FootprintDeltaDto> batch = invocation.getArgument(0);
+			for (FootprintDeltaDto delta : batch) {
+				if (List.of(rejectedKeys).contains(delta.getIdempotencyKey())) {
+					throw badRequest();
+				}
+			}
+			batch.forEach(delta -> delivered.add(delta.getIdempotencyKey()));
+			return List.of();
+		});
+	}
+
+	private static FeignException badRequest() {
+		Request request = Request.create(Request.HttpMethod.POST, "/users/footprint-deltas", Map.of(), null,
+				StandardCharsets.UTF_8, null);
+		return FeignException.errorStatus("UserClient#addFootprintDeltas(List)",
+				Response.builder().status(400).reason("Bad Request").request(request).headers(Map.of()).build());
+	}
+
+	@Test
+	void aBatchBeingDeliveredIsNotClaimedAgainNorBlocksTheNextOne() throws Exception {
+		List<OutboxEvent> events = pending(6);
+		CountDownLatch firstCallStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstCall = new CountDownLatch(1);
+		when(userClient.addFootprintDeltas(anyList())).thenAnswer(invocation -> {
+			List<FootprintDeltaDto> batch = invocation.getArgument(0);
+			if (firstCallStarted.getCount() > 0) {
+				firstCallStarted.countDown();
+				releaseFirstCall.await();
+			}
+			batch.forEach(delta -> delivered.add(delta.getIdempotencyKey()));
+			return List.of();
+		});
+
+		// The first dispatcher holds its claim while UserManagement is slow; the second gets the next batch
+		CompletableFuture<Void> first = CompletableFuture.runAsync(outboxDispatcher::dispatch);
+		assertTrue(firstCallStarted.await(10, TimeUnit.SECONDS));
+		CompletableFuture.runAsync(outboxDispatcher::dispatch).get(10, TimeUnit.SECONDS);
+		assertEquals(keys(events.subList(3, 6)), delivered);
+
+		releaseFirstCall.countDown();
+		first.get(10, TimeUnit.SECONDS);
+		outboxDispatcher.dispatch();
+
+		assertEquals(6, delivered.size());
+		assertEquals(new HashSet<>(keys(events)), new HashSet<>(delivered));
+		for (OutboxEvent event : events) {
+			assertEquals(OutboxStatus.SENT, reload(event).getStatus());
+		}
+	}
+
+	@Test
+	void anUnreachableUserManagementIsRetriedPastMaxAttempts() {
+		OutboxEvent event = pending(1).get(0);
+		when(userClient.addFootprintDeltas(anyList()))
+				.thenThrow(new UserManagementUnavailableException(new IOException("Connection refused")));
+
+		for (int i = 0; i < 3; i++) {
+			outboxDispatcher.dispatch();
+		}
+
+		assertEquals(OutboxStatus.PENDING, reload(event).getStatus());
+		assertEquals(3, reload(event).getAttempts());
+	}
+
+	@Test
+	void aRejectedEventDoesNotHoldBackTheRestOfItsBatch() {
+		List<OutboxEvent> events = pending(3);
+		OutboxEvent rejected = events.get(1);
+		accept(rejected.getIdempotencyKey());
+
+		outboxDispatcher.dispatch();
+
+		assertEquals(keys(List.of(events.get(0), events.get(2))), delivered);
+		assertEquals(OutboxStatus.SENT, reload(events.get(0)).getStatus());
+		assertEquals(OutboxStatus.SENT, reload(events.get(2)).getStatus());
+		assertEquals(OutboxStatus.PENDING, reload(rejected).getStatus());
+
+		outboxDispatcher.dispatch();
+		assertEquals(OutboxStatus.FAILED, reload(rejected).getStatus());
+		assertEquals(2, reload(rejected).getAttempts());
+	}
+}
@@ -0,0 +1,201 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.Exceptions.UserIdNotFoundException;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.BreakdownResponseDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.BulkImportResultDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.DashboardResponseDto;
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.ElectricityDto;
+import com.CapstoneProject.CarbonFootprintTrack.client.UserClient;
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprint;
+import com.CapstoneProject.CarbonFootprintTrack.model.CompactedFootprintId;
+import com.CapstoneProject.CarbonFootprintTrack.model.User;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonTrackRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CompactedFootprintRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.FootprintVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+// Compacts a user's history with a two-month horizon as of 2026-10-18, so June and July 2026 become monthly rows
+// while August onwards stays in carbondetails, and checks that the history reads see each month exactly once.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.retention.raw-months=2",
+		"carbontrack.retention.delete-chunk-size=2"
+})
+class RetentionServiceTests {
+
+	private static final Long USER = 7L;
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+	@Autowired
+	private RetentionService retentionService;
+
+	@Autowired
+	private CarbonTrackService carbonTrackService;
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private CarbonTrackRepository carbonTrackRepository;
+
+	@Autowired
+	private CompactedFootprintRepository compactedFootprintRepository;
+
+	@Autowired
+	private FootprintVersionRepository footprintVersionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// The bulk import checks each user against UserManagement
+	@MockBean
+	private UserClient userClient;
+
+	@BeforeEach
+	void seed() {
+		carbonTrackRepository.deleteAllInBatch();
+		compactedFootprintRepository.deleteAllInBatch();
+		jdbcTemplate.update("UPDATE carbondetails_retention SET compacted_before = '1000-01-01'");
+		carbonTrackRepository.saveAll(List.of(
+				footprint(LocalDate.of(2026, 6, 5), 5),
+				footprint(LocalDate.of(2026, 6, 20), 7),
+				footprint(LocalDate.of(2026, 7, 10), 11),
+				footprint(LocalDate.of(2026, 9, 1), 13),
+				footprint(LocalDate.of(2026, 10, 2), 17)));
+	}
+
+	private static CarbonFootPrint footprint(LocalDate date, double total) {
+		return new CarbonFootPrint(null, USER, "user7", date, "pune", 0, total, 0, total, 0);
+	}
+
+	@Test
+	void oldMonthsAreCompactedAndReadBackOnce() {
+		long version = footprintVersionRepository.findVersion(USER);
+
+		assertEquals(LocalDate.of(2026, 8, 1), retentionService.compact(TODAY));
+
+		CompactedFootprint june = compactedFootprintRepository.findById(new CompactedFootprintId(USER, LocalDate.of(2026, 6, 1))).orElseThrow();
+		assertEquals(12.0, june.getCarbonFootprint());
+		assertEquals(2, june.getSubmissions());
+		assertEquals(2, compactedFootprintRepository.count());
+		assertEquals(version + 2, footprintVersionRepository.findVersion(USER));
+
+		// The compacted rows are still in carbondetails until the purge, but already read from the monthly rows
+		List<String> expected = List.of("02-10-2026=17.0", "01-09-2026=13.0", "01-07-2026=11.0", "01-06-2026=12.0");
+		assertEquals(expected, dashboard(null, 30));
+
+		assertEquals(3, retentionService.purge(LocalDate.of(2026, 8, 1)));
+		assertEquals(2, carbonTrackRepository.count());
+		assertEquals(expected, dashboard(null, 30));
+		assertEquals(LocalDate.of(2026, 8, 1), retentionService.compact(TODAY));
+		assertEquals(expected, dashboard(null, 30));
+	}
+
+	@Test
+	void rowsWithoutAUserAreNotCompactedAndArePurgedWithTheirMonth() {
+		carbonTrackRepository.save(new CarbonFootPrint(null, null, "anonymous", LocalDate.of(2026, 6, 10), "pune", 0, 100, 0, 100, 0));
+
+		retentionService.compact(TODAY);
+		CompactedFootprint june = compactedFootprintRepository.findById(new CompactedFootprintId(USER, LocalDate.of(2026, 6, 1))).orElseThrow();
+		assertEquals(12.0, june.getCarbonFootprint());
+		assertEquals(2, compactedFootprintRepository.count());
+
+		assertEquals(4, retentionService.purge(LocalDate.of(2026, 8, 1)));
+		assertEquals(2, carbonTrackRepository.count());
+	}
+
+	@Test
+	void dashboardPagesAndBreakdownRangesSpanRawAndCompactedData() {
+		retentionService.compact(TODAY);
+		retentionService.purge(LocalDate.of(2026, 8, 1));
+
+		assertEquals(List.of("02-10-2026=17.0", "01-09-2026=13.0"), dashboard(null, 2));
+		assertEquals(List.of("01-07-2026=11.0", "01-06-2026=12.0"), dashboard(LocalDate.of(2026, 9, 1), 2));
+		assertEquals(List.of("01-06-2026=12.0"), dashboard(LocalDate.of(2026, 7, 1), 2));
+
+		List<String> electricity = carbonTrackService.getBreakdown(USER, LocalDate.of(2026, 6, 15), LocalDate.of(2026, 9, 30),
+						Set.of("electricity")).getElectricity().stream()
+				.map(ElectricityDto::getDate)
+				.collect(Collectors.toList());
+		assertEquals(List.of("01-06-2026", "01-07-2026", "01-09-2026"), electricity);
+	}
+
+	@Test
+	void breakdownOfARangeWithoutDataIsEmptyUnlessTheUserIsUnknown() {
+		BreakdownResponseDto breakdown = carbonTrackService.getBreakdown(USER, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null);
+		assertEquals(List.of(), breakdown.getElectricity());
+		assertEquals(List.of(), breakdown.getWastage());
+		assertEquals(List.of(), breakdown.getTransportation());
+
+		assertThrows(UserIdNotFoundException.class,
+				() -> carbonTrackService.getBreakdown(99L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null));
+	}
+
+	@Test
+	void submissionsOnTheSameDayArePagedWithoutGaps() {
+		retentionService.compact(TODAY);
+		retentionService.purge(LocalDate.of(2026, 8, 1));
+		carbonTrackRepository.saveAll(List.of(
+				footprint(LocalDate.of(2026, 9, 1), 19),
+				footprint(LocalDate.of(2026, 9, 1), 23)));
+
+		List<DashboardResponseDto> first = carbonTrackService.getDashboard(USER, null, null, 2);
+		assertEquals(List.of("02-10-2026=17.0", "01-09-2026=23.0"), entries(first));
+
+		DashboardResponseDto last = first.get(1);
+		List<DashboardResponseDto> second = carbonTrackService.getDashboard(USER, LocalDate.of(2026, 9, 1), last.getId(), 3);
+		assertEquals(List.of("01-09-2026=19.0", "01-09-2026=13.0", "01-07-2026=11.0"), entries(second));
+		assertNull(second.get(2).getId());
+
+		assertEquals(List.of("01-06-2026=12.0"), dashboard(LocalDate.of(2026, 7, 1), 3));
+	}
+
+	@Test
+	void importedRecordsForCompactedMonthsGoToTheMonthlyRows() throws Exception {
+		retentionService.compact(TODAY);
+		retentionService.purge(LocalDate.of(2026, 8, 1));
+		User user = new User();
+		user.setId(USER);
+		when(userClient.getUserById(USER)).thenReturn(user);
+
+		String ndjson = "{\"userId\":7,\"date\":\"2026-06-25\",\"city\":\"pune\",\"name\":\"user7\",\"prevWatts\":0,\"todayWatts\":10}\n" +
+				"{\"userId\":7,\"date\":\"2026-09-25\",\"city\":\"pune\",\"name\":\"user7\",\"prevWatts\":0,\"todayWatts\":10}\n";
+		BulkImportResultDto result = bulkImportService.importForms(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, result.getImported());
+		CompactedFootprint june = compactedFootprintRepository.findById(new CompactedFootprintId(USER, LocalDate.of(2026, 6, 1))).orElseThrow();
+		assertEquals(3, june.getSubmissions());
+		assertEquals(12.0 + result.getTotalEmissions() / 2, june.getCarbonFootprint(), 1e-9);
+		assertEquals(List.of(LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 25), LocalDate.of(2026, 10, 2)),
+				carbonTrackRepository.findByUserId(USER).stream().map(CarbonFootPrint::getToday_date).sorted().collect(Collectors.toList()));
+	}
+
+	private List<String> dashboard(LocalDate before, int limit) {
+		return entries(carbonTrackService.getDashboard(USER, before, null, limit));
+	}
+
+	private static List<String> entries(List<DashboardResponseDto> dashboard) {
+		return dashboard.stream()
+				.map(entry -> entry.getDate() + "=" + entry.getTotalCarbonFootprint())
+				.collect(Collectors.toList());
+	}
+}
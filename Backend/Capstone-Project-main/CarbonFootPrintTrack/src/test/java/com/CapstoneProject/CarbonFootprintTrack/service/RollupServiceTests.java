@@ -0,0 +1,108 @@
+package com.CapstoneProject.CarbonFootprintTrack.service;
+
+import com.CapstoneProject.CarbonFootprintTrack.model.CarbonFootPrint;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollup;
+import com.CapstoneProject.CarbonFootprintTrack.model.FootprintRollupId;
+import com.CapstoneProject.CarbonFootprintTrack.model.RollupPeriod;
+import com.CapstoneProject.CarbonFootprintTrack.repository.CarbonTrackRepository;
+import com.CapstoneProject.CarbonFootprintTrack.repository.FootprintRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"carbontrack.rollup.rebuild-batch-size=2"
+})
+class RollupServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 14);
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private FootprintRollupRepository rollupRepository;
+
+	@Autowired
+	private CarbonTrackRepository carbonTrackRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void clear() {
+		carbonTrackRepository.deleteAllInBatch();
+		rollupRepository.deleteAllInBatch();
+	}
+
+	private static CarbonFootPrint footprint(long userId, LocalDate date, double total) {
+		return new CarbonFootPrint(null, userId, "user" + userId, date, "pune", 0, total, 0, total, 0);
+	}
+
+	private FootprintRollup rollup(long userId, RollupPeriod period, LocalDate date) {
+		return rollupRepository.findById(new FootprintRollupId(userId, period, period.bucketStart(date))).orElseThrow();
+	}
+
+	@Test
+	void concurrentSubmissionsToOneBucketAreAllCounted() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> submissions = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			submissions.add(pool.submit(() -> {
+				start.await();
+				tx.executeWithoutResult(status -> rollupService.record(footprint(1, DAY, 2)));
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> submission : submissions) {
+			submission.get();
+		}
+		pool.shutdown();
+
+		for (RollupPeriod period : RollupPeriod.values()) {
+			assertEquals(40, rollup(1, period, DAY).getSubmissions());
+			assertEquals(80.0, rollup(1, period, DAY).getCarbonFootprint());
+		}
+	}
+
+	@Test
+	void rebuildReplacesEachUsersBucketsWithTheirCarbondetailsSums() {
+		carbonTrackRepository.saveAll(List.of(
+				footprint(1, DAY, 3), footprint(1, DAY, 4), footprint(1, DAY.plusDays(1), 5),
+				footprint(2, DAY, 6), footprint(3, DAY, 7)));
+		// Drifted buckets, and buckets of a user without carbondetails rows
+		FootprintRollup drifted = new FootprintRollup(new FootprintRollupId(1L, RollupPeriod.DAY, DAY));
+		drifted.add(footprint(1, DAY, 100));
+		FootprintRollup orphan = new FootprintRollup(new FootprintRollupId(4L, RollupPeriod.MONTH, DAY.withDayOfMonth(1)));
+		orphan.add(footprint(4, DAY, 1));
+		rollupRepository.saveAll(List.of(drifted, orphan));
+
+		assertEquals(5, rollupService.rebuild());
+
+		assertEquals(7.0, rollup(1, RollupPeriod.DAY, DAY).getCarbonFootprint());
+		assertEquals(2, rollup(1, RollupPeriod.DAY, DAY).getSubmissions());
+		assertEquals(12.0, rollup(1, RollupPeriod.WEEK, DAY).getCarbonFootprint());
+		assertEquals(6.0, rollup(2, RollupPeriod.MONTH, DAY).getCarbonFootprint());
+		assertEquals(7.0, rollup(3, RollupPeriod.MONTH, DAY).getCarbonFootprint());
+		assertFalse(rollupRepository.existsById(orphan.getId()));
+	}
+}
@@ -0,0 +1,6 @@
+-- The schema hibernate ddl-auto=update created for the entities of the last release before the Flyway migrations
+-- (CarbonFootPrint, leaderBoard and User), as Hibernate 6 generated it for MySQL. No secondary indexes.
+create table carbondetails (carbon_footprint float(53) not null, electricity float(53) not null, today_date date, total_carbon_footprint float(53) not null, transportation float(53) not null, wastage float(53) not null, id bigint not null auto_increment, user_id bigint, city varchar(255), name varchar(255), primary key (id)) engine=InnoDB;
+create table leaderboard (today_date date, total_carbon_footprint float(53) not null, user_id bigint not null, city varchar(255), name varchar(255), primary key (user_id)) engine=InnoDB;
+create table users (TotalCarbonFootprint float(53) not null, CreatedAt datetime(6), UpdatedAt datetime(6), id bigint not null auto_increment, City varchar(255) not null, Email varchar(255) not null, Name varchar(255) not null, Password varchar(255) not null, Role enum ('USER','SERVICE_PROVIDER','ADMIN'), primary key (id)) engine=InnoDB;
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (Email);
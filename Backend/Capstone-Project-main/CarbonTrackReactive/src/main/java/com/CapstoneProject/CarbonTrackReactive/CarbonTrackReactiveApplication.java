@@ -0,0 +1,15 @@
+package com.CapstoneProject.CarbonTrackReactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+
+@SpringBootApplication
+@EnableDiscoveryClient
+public class CarbonTrackReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CarbonTrackReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,7 @@
+package com.CapstoneProject.CarbonTrackReactive.Exceptions;
+
+public class CityNotFoundException extends RuntimeException {
+    public CityNotFoundException(String city) {
+        super("City with " + city + " not found ");
+    }
+}
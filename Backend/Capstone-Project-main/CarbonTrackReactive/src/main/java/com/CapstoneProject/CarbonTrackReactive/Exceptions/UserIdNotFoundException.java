@@ -0,0 +1,7 @@
+package com.CapstoneProject.CarbonTrackReactive.Exceptions;
+
+public class UserIdNotFoundException extends RuntimeException {
+    public UserIdNotFoundException(Long userId) {
+        super("User with UserId : " + userId + " is not available");
+    }
+}
@@ -0,0 +1,15 @@
+package com.CapstoneProject.CarbonTrackReactive.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class DashboardResponseDto {
+    private String date;
+    private double totalCarbonFootprint;
+    // Pass back as beforeId, with date as before, to get the next page; null for a compacted month
+    private Long id;
+}
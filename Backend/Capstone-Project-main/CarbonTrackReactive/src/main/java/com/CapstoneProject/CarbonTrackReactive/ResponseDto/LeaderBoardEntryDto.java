@@ -0,0 +1,19 @@
+package com.CapstoneProject.CarbonTrackReactive.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Same JSON shape as CarbonFootprintTrack's leaderBoard entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class LeaderBoardEntryDto {
+    private Long userId;
+    private String name;
+    private LocalDate todayDate;
+    private String city;
+    private double totalCarbonFootprint;
+}
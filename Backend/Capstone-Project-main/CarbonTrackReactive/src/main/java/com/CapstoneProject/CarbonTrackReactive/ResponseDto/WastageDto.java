@@ -0,0 +1,13 @@
+package com.CapstoneProject.CarbonTrackReactive.ResponseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class WastageDto {
+    private String date;
+    private double wastage;
+}
@@ -0,0 +1,68 @@
+package com.CapstoneProject.CarbonTrackReactive.controller;
+
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.DashboardResponseDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.ElectricityDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.LeaderBoardEntryDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.TransportationDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.WastageDto;
+import com.CapstoneProject.CarbonTrackReactive.service.CarbonTrackReadService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Non-blocking twins of CarbonFootprintTrack's read endpoints, on the same paths.
+// application/json gets the usual array, written element by element; application/x-ndjson gets one
+// object per line, flushed as each row arrives.
+@RestController
+@RequestMapping(value = "/carbonTrack", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+public class CarbonTrackReadController {
+
+    private final CarbonTrackReadService carbonTrackReadService;
+
+    public CarbonTrackReadController(CarbonTrackReadService carbonTrackReadService) {
+        this.carbonTrackReadService = carbonTrackReadService;
+    }
+
+    @GetMapping("/user/{userId}/dashboard")
+    public Flux<DashboardResponseDto> getDashboard(@PathVariable Long userId,
+                                                   @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate before,
+                                                   @RequestParam(required = false) Long beforeId,
+                                                   @RequestParam(defaultValue = "" + CarbonTrackReadService.DEFAULT_DASHBOARD_PAGE) int limit) {
+        return carbonTrackReadService.getDashboard(userId, before, beforeId, limit);
+    }
+
+    @GetMapping("/user/{userId}/electricity")
+    public Flux<ElectricityDto> getElectricityCarbonFootprint(@PathVariable Long userId) {
+        return carbonTrackReadService.getElectricityCarbonFootprint(userId);
+    }
+
+    @GetMapping("/user/{userId}/wastage")
+    public Flux<WastageDto> getWastageCarbonFootprint(@PathVariable Long userId) {
+        return carbonTrackReadService.getWastageCarbonFootprint(userId);
+    }
+
+    @GetMapping("/user/{userId}/transportation")
+    public Flux<TransportationDto> getTransportation(@PathVariable Long userId) {
+        return carbonTrackReadService.getTransportation(userId);
+    }
+
+    @GetMapping("/leaderBoard/{city}")
+    public Flux<LeaderBoardEntryDto> getLeaderBoard(@PathVariable String city,
+                                                    @RequestParam(defaultValue = "0") long offset,
+                                                    @RequestParam(defaultValue = "" + CarbonTrackReadService.DEFAULT_LEADERBOARD_PAGE) int limit) {
+        return carbonTrackReadService.getLeaderBoard(city, offset, limit);
+    }
+
+    // Every entry of the city in rank order; use with Accept: application/x-ndjson
+    @GetMapping("/leaderBoard/{city}/stream")
+    public Flux<LeaderBoardEntryDto> streamLeaderBoard(@PathVariable String city) {
+        return carbonTrackReadService.streamLeaderBoard(city);
+    }
+}
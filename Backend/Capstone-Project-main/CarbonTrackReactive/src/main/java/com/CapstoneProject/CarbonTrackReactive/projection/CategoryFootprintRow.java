@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonTrackReactive.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Columns read by the per-category history queries
+@Data
+@AllArgsConstructor
+public class CategoryFootprintRow {
+    private LocalDate date;
+    private double electricity;
+    private double wastage;
+    private double transportation;
+}
@@ -0,0 +1,16 @@
+package com.CapstoneProject.CarbonTrackReactive.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Columns read by the dashboard query
+@Data
+@AllArgsConstructor
+public class DailyFootprintRow {
+    // carbondetails id; null for a compacted month
+    private Long id;
+    private LocalDate date;
+    private double totalCarbonFootprint;
+}
@@ -0,0 +1,69 @@
+package com.CapstoneProject.CarbonTrackReactive.repository;
+
+import com.CapstoneProject.CarbonTrackReactive.projection.CategoryFootprintRow;
+import com.CapstoneProject.CarbonTrackReactive.projection.DailyFootprintRow;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Read-only queries over carbondetails. Rows are emitted as the driver decodes them and only as fast as
+// downstream demand allows, so a slow client holds back the query instead of buffering the history.
+// Months older than CarbonFootprintTrack's retention horizon are read from carbondetails_monthly, one row per
+// month dated on its first day; each query splits at the compaction watermark in a single statement.
+@Repository
+public class CarbonDetailsReadRepository {
+
+    private static final String COMPACTED_BEFORE = "(SELECT compacted_before FROM carbondetails_retention WHERE id = 1)";
+
+    private final DatabaseClient databaseClient;
+
+    public CarbonDetailsReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Newest-first page of a user's daily totals, each branch served by its (user_id, date) index and cut to
+    // the page size before the merge. (before, beforeId) is an exclusive keyset cursor over (today_date, id);
+    // compacted months have no id and are unique per user, so only the date applies to them.
+    public Flux<DailyFootprintRow> findLatestByUserId(Long userId, LocalDate before, Long beforeId, int limit) {
+        String sql = "(SELECT id, today_date, carbon_footprint FROM carbondetails WHERE user_id = :userId"
+                + " AND today_date >= " + COMPACTED_BEFORE
+                + (before != null ? " AND (today_date < :before OR (today_date = :before AND id < :beforeId))" : "")
+                + " ORDER BY today_date DESC, id DESC LIMIT :limit)"
+                + " UNION ALL"
+                + " (SELECT NULL, month_start, carbon_footprint FROM carbondetails_monthly WHERE user_id = :userId"
+                + " AND month_start < " + COMPACTED_BEFORE
+                + (before != null ? " AND month_start < :before" : "")
+                + " ORDER BY month_start DESC LIMIT :limit)"
+                + " ORDER BY today_date DESC, id DESC LIMIT :limit";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("userId", userId)
+                .bind("limit", limit);
+        if (before != null) {
+            // Without an id the whole cursor day is skipped; ids start at 1
+            spec = spec.bind("before", before).bind("beforeId", beforeId != null ? beforeId : 0L);
+        }
+        return spec.map((row, metadata) -> new DailyFootprintRow(
+                        row.get("id", Long.class),
+                        row.get("today_date", LocalDate.class),
+                        row.get("carbon_footprint", Double.class)))
+                .all();
+    }
+
+    // Category columns for a user's whole history, oldest first
+    public Flux<CategoryFootprintRow> findCategoriesByUserId(Long userId) {
+        return databaseClient.sql("SELECT today_date, electricity, wastage, transportation FROM carbondetails "
+                        + "WHERE user_id = :userId AND today_date >= " + COMPACTED_BEFORE + " "
+                        + "UNION ALL SELECT month_start, electricity, wastage, transportation FROM carbondetails_monthly "
+                        + "WHERE user_id = :userId AND month_start < " + COMPACTED_BEFORE + " "
+                        + "ORDER BY today_date ASC")
+                .bind("userId", userId)
+                .map((row, metadata) -> new CategoryFootprintRow(
+                        row.get("today_date", LocalDate.class),
+                        row.get("electricity", Double.class),
+                        row.get("wastage", Double.class),
+                        row.get("transportation", Double.class)))
+                .all();
+    }
+}
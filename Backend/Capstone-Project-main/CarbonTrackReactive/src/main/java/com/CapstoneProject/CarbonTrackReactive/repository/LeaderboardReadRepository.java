@@ -0,0 +1,50 @@
+package com.CapstoneProject.CarbonTrackReactive.repository;
+
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.LeaderBoardEntryDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Read-only queries over the leaderboard table, in CarbonFootprintTrack's rank order:
+// totalCarbonFootprint descending, ties by userId ascending.
+@Repository
+public class LeaderboardReadRepository {
+
+    private static final String SELECT_CITY = "SELECT user_id, name, today_date, city, total_carbon_footprint "
+            + "FROM leaderboard WHERE city = :city ORDER BY total_carbon_footprint DESC, user_id ASC";
+
+    private final DatabaseClient databaseClient;
+
+    public LeaderboardReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<LeaderBoardEntryDto> findByCity(String city, long offset, int limit) {
+        return databaseClient.sql(SELECT_CITY + " LIMIT :limit OFFSET :offset")
+                .bind("city", city)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(LeaderboardReadRepository::toEntry)
+                .all();
+    }
+
+    // The whole city, for streaming to clients that consume it incrementally
+    public Flux<LeaderBoardEntryDto> streamByCity(String city) {
+        return databaseClient.sql(SELECT_CITY)
+                .bind("city", city)
+                .map(LeaderboardReadRepository::toEntry)
+                .all();
+    }
+
+    private static LeaderBoardEntryDto toEntry(Readable row) {
+        return new LeaderBoardEntryDto(
+                row.get("user_id", Long.class),
+                row.get("name", String.class),
+                row.get("today_date", LocalDate.class),
+                row.get("city", String.class),
+                row.get("total_carbon_footprint", Double.class));
+    }
+}
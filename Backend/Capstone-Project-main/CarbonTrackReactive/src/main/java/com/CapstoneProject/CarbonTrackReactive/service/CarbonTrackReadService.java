@@ -0,0 +1,86 @@
+package com.CapstoneProject.CarbonTrackReactive.service;
+
+import com.CapstoneProject.CarbonTrackReactive.Exceptions.CityNotFoundException;
+import com.CapstoneProject.CarbonTrackReactive.Exceptions.UserIdNotFoundException;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.DashboardResponseDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.ElectricityDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.LeaderBoardEntryDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.TransportationDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.WastageDto;
+import com.CapstoneProject.CarbonTrackReactive.projection.CategoryFootprintRow;
+import com.CapstoneProject.CarbonTrackReactive.repository.CarbonDetailsReadRepository;
+import com.CapstoneProject.CarbonTrackReactive.repository.LeaderboardReadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Same results and limits as CarbonFootprintTrack's CarbonTrackService/LeaderBoardService read methods.
+// Unbounded results are requested from the database in prefetch-sized batches driven by client demand.
+@Service
+public class CarbonTrackReadService {
+
+    public static final int DEFAULT_DASHBOARD_PAGE = 30;
+    private static final int MAX_DASHBOARD_PAGE = 365;
+    public static final int DEFAULT_LEADERBOARD_PAGE = 100;
+    private static final int MAX_LEADERBOARD_PAGE = 500;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final CarbonDetailsReadRepository carbonDetailsReadRepository;
+    private final LeaderboardReadRepository leaderboardReadRepository;
+    private final int prefetch;
+
+    public CarbonTrackReadService(CarbonDetailsReadRepository carbonDetailsReadRepository,
+                                  LeaderboardReadRepository leaderboardReadRepository,
+                                  @Value("${carbontrack.read.stream-prefetch:256}") int prefetch) {
+        this.carbonDetailsReadRepository = carbonDetailsReadRepository;
+        this.leaderboardReadRepository = leaderboardReadRepository;
+        this.prefetch = prefetch;
+    }
+
+    // Newest first; (before, beforeId) are the date and id of the last entry of the previous page
+    public Flux<DashboardResponseDto> getDashboard(Long userId, LocalDate before, Long beforeId, int limit) {
+        Flux<DashboardResponseDto> page = carbonDetailsReadRepository
+                .findLatestByUserId(userId, before, beforeId, Math.min(Math.max(limit, 1), MAX_DASHBOARD_PAGE))
+                .map(footprint -> new DashboardResponseDto(DATE_FORMAT.format(footprint.getDate()),
+                        footprint.getTotalCarbonFootprint(), footprint.getId()));
+        // An empty continuation page just means the history is exhausted
+        return before == null ? page.switchIfEmpty(Mono.error(() -> new UserIdNotFoundException(userId))) : page;
+    }
+
+    public Flux<ElectricityDto> getElectricityCarbonFootprint(Long userId) {
+        return categories(userId).map(footprint -> new ElectricityDto(DATE_FORMAT.format(footprint.getDate()), footprint.getElectricity()));
+    }
+
+    public Flux<WastageDto> getWastageCarbonFootprint(Long userId) {
+        return categories(userId).map(footprint -> new WastageDto(DATE_FORMAT.format(footprint.getDate()), footprint.getWastage()));
+    }
+
+    public Flux<TransportationDto> getTransportation(Long userId) {
+        return categories(userId).map(footprint -> new TransportationDto(DATE_FORMAT.format(footprint.getDate()), footprint.getTransportation()));
+    }
+
+    // A page past the end of a known city is empty rather than an error, so only the first page can tell
+    // an unknown city apart
+    public Flux<LeaderBoardEntryDto> getLeaderBoard(String city, long offset, int limit) {
+        Flux<LeaderBoardEntryDto> page = leaderboardReadRepository
+                .findByCity(city, Math.max(offset, 0), Math.min(Math.max(limit, 1), MAX_LEADERBOARD_PAGE));
+        return offset <= 0 ? page.switchIfEmpty(Mono.error(() -> new CityNotFoundException(city))) : page;
+    }
+
+    public Flux<LeaderBoardEntryDto> streamLeaderBoard(String city) {
+        return leaderboardReadRepository.streamByCity(city)
+                .limitRate(prefetch)
+                .switchIfEmpty(Mono.error(() -> new CityNotFoundException(city)));
+    }
+
+    private Flux<CategoryFootprintRow> categories(Long userId) {
+        return carbonDetailsReadRepository.findCategoriesByUserId(userId)
+                .limitRate(prefetch)
+                .switchIfEmpty(Mono.error(() -> new UserIdNotFoundException(userId)));
+    }
+}
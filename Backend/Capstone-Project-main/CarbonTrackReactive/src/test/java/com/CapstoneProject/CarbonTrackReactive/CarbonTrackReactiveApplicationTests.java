@@ -0,0 +1,92 @@
+package com.CapstoneProject.CarbonTrackReactive;
+
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.DashboardResponseDto;
+import com.CapstoneProject.CarbonTrackReactive.ResponseDto.LeaderBoardEntryDto;
+import com.CapstoneProject.CarbonTrackReactive.service.CarbonTrackReadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.r2dbc.url=r2dbc:h2:mem:///carbontrack;MODE=MySQL",
+		"spring.r2dbc.username=sa",
+		"spring.r2dbc.password=",
+		"spring.sql.init.mode=always",
+		"eureka.client.enabled=false",
+		"spring.cloud.discovery.enabled=false",
+		"carbontrack.read.stream-prefetch=2"
+})
+@AutoConfigureWebTestClient
+class CarbonTrackReactiveApplicationTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private CarbonTrackReadService carbonTrackReadService;
+
+	@Test
+	void dashboardIsNewestFirstAndPagedByDateAndId() {
+		webTestClient.get().uri("/carbonTrack/user/1/dashboard?limit=2")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(DashboardResponseDto.class)
+				.isEqualTo(List.of(
+						new DashboardResponseDto("03-01-2024", 12.0, 3L),
+						new DashboardResponseDto("02-01-2024", 5.0, 5L)));
+
+		// The other submission of 02-01 is on the next page
+		webTestClient.get().uri("/carbonTrack/user/1/dashboard?limit=2&before=02-01-2024&beforeId=5")
+				.exchange()
+				.expectBodyList(DashboardResponseDto.class)
+				.isEqualTo(List.of(
+						new DashboardResponseDto("02-01-2024", 9.0, 2L),
+						new DashboardResponseDto("01-01-2024", 6.0, 1L)));
+	}
+
+	@Test
+	void unknownUserMatchesTheBlockingService() {
+		webTestClient.get().uri("/carbonTrack/user/99/electricity")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo(" User with UserId : 99 is not available");
+	}
+
+	@Test
+	void leaderboardStreamsInRankOrderAsNdjson() {
+		List<LeaderBoardEntryDto> entries = webTestClient.get().uri("/carbonTrack/leaderBoard/pune/stream")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(LeaderBoardEntryDto.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+
+		assertEquals(3, entries.size());
+		assertEquals(1L, entries.get(0).getUserId());
+		assertEquals(3L, entries.get(1).getUserId());
+		assertEquals(2L, entries.get(2).getUserId());
+	}
+
+	@Test
+	void streamOnlyEmitsWhatIsRequested() {
+		StepVerifier.create(carbonTrackReadService.streamLeaderBoard("pune"), 1)
+				.expectNextMatches(entry -> entry.getUserId() == 1L)
+				.expectNoEvent(Duration.ofMillis(100))
+				.thenRequest(2)
+				.expectNextCount(2)
+				.verifyComplete();
+	}
+}
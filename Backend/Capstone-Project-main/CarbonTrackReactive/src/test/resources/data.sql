@@ -0,0 +1,13 @@
+INSERT INTO carbondetails (user_id, name, today_date, city, transportation, electricity, wastage, carbon_footprint, total_carbon_footprint) VALUES
+(1, 'a', '2024-01-01', 'pune', 1, 2, 3, 6, 6),
+(1, 'a', '2024-01-02', 'pune', 2, 3, 4, 9, 15),
+(1, 'a', '2024-01-03', 'pune', 3, 4, 5, 12, 27),
+(2, 'b', '2024-01-01', 'pune', 1, 1, 1, 3, 3),
+(1, 'a', '2024-01-02', 'pune', 1, 1, 3, 5, 32);
+
+INSERT INTO carbondetails_retention (id, compacted_before) VALUES (1, '1000-01-01');
+
+INSERT INTO leaderboard (user_id, name, today_date, city, total_carbon_footprint) VALUES
+(1, 'a', '2024-01-03', 'pune', 27),
+(2, 'b', '2024-01-01', 'pune', 3),
+(3, 'c', '2024-01-02', 'pune', 27);
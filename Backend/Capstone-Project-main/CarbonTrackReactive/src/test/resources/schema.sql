@@ -0,0 +1,36 @@
+CREATE TABLE carbondetails (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT,
+    name VARCHAR(255),
+    today_date DATE,
+    city VARCHAR(255),
+    transportation DOUBLE,
+    electricity DOUBLE,
+    wastage DOUBLE,
+    carbon_footprint DOUBLE,
+    total_carbon_footprint DOUBLE
+);
+
+CREATE TABLE carbondetails_monthly (
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    transportation DOUBLE NOT NULL,
+    electricity DOUBLE NOT NULL,
+    wastage DOUBLE NOT NULL,
+    carbon_footprint DOUBLE NOT NULL,
+    submissions BIGINT NOT NULL,
+    PRIMARY KEY (user_id, month_start)
+);
+
+CREATE TABLE carbondetails_retention (
+    id INT PRIMARY KEY,
+    compacted_before DATE NOT NULL
+);
+
+CREATE TABLE leaderboard (
+    user_id BIGINT PRIMARY KEY,
+    name VARCHAR(255),
+    today_date DATE,
+    city VARCHAR(255),
+    total_carbon_footprint DOUBLE
+);
@@ -1,7 +1,10 @@
 package com.serviceharbor.auth.configs;
 
 
+import com.serviceharbor.auth.model.User;
 import com.serviceharbor.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,9 +12,17 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class ApplicationConfiguration {
@@ -27,9 +38,39 @@ public class ApplicationConfiguration {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // New hashes use security.password.encoder ({bcrypt} at the configured strength, or {argon2}).
+    // Hashes stored before the {id} prefix existed are plain bcrypt and still match; they are rehashed on the next login.
+    @Bean
+    PasswordEncoder passwordEncoder(
+            @Value("${security.password.encoder:bcrypt}") String encoderId,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${security.password.hashing-threads:0}") int hashingThreads,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.queue-timeout:2s}") Duration queueTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, queueTimeout, meterRegistry);
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose stored hash is outdated
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            userRepository.updatePassword(user.getUsername(), newPassword);
+            if (user instanceof User entity) {
+                entity.setPassword(newPassword);
+            }
+            return user;
+        };
     }
 
     @Bean
@@ -38,11 +79,13 @@ public class ApplicationConfiguration {
     }
 
     @Bean
-    AuthenticationProvider authenticationProvider() {
+    AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                  UserDetailsPasswordService userDetailsPasswordService) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
 
         return authProvider;
     }
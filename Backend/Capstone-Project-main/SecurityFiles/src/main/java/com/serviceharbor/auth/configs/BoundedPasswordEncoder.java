@@ -0,0 +1,119 @@
+package com.serviceharbor.auth.configs;
+
+import com.serviceharbor.auth.exceptions.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs every encode/matches of the delegate on a small fixed pool with a bounded queue.
+// A login storm then queues (and beyond the queue, is shed with a 503) instead of pinning every Tomcat thread on bcrypt.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final Counter rejected;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.active / executor.completed tagged name=password.hashing
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hash requests shed because the hashing queue was full or the wait timed out")
+                .register(meterRegistry);
+        this.encodeTimer = hashingTimer("encode", meterRegistry);
+        this.matchesTimer = hashingTimer("matches", meterRegistry);
+    }
+
+    // Measured on the hashing thread, so it is the cost of the hash alone; queue wait shows in executor.idle
+    private static Timer hashingTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent computing a password hash")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        Future<T> future;
+        try {
+            // cancel(true) cannot stop a hash that has already started, so a task that starts with less time left
+            // than a typical hash takes skips it instead of spending a hashing thread on an answer nobody will wait for
+            future = executor.submit(() -> {
+                if (deadline - System.nanoTime() <= timer.mean(TimeUnit.NANOSECONDS)) {
+                    throw new PasswordHashingOverloadedException("Password hashing timed out under load, please retry shortly");
+                }
+                return timer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException("Too many concurrent logins, please retry shortly");
+        }
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingOverloadedException("Password hashing timed out under load, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PasswordHashingOverloadedException) {
+                rejected.increment();
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -2,6 +2,10 @@ package com.serviceharbor.auth.configs;
 
 
 import com.serviceharbor.auth.service.JwtService;
+import com.serviceharbor.auth.service.PrincipalResolver;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,29 +15,42 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalResolver principalResolver;
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            PrincipalResolver principalResolver,
+            HandlerExceptionResolver handlerExceptionResolver,
+            MeterRegistry meterRegistry
     ) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principalResolver = principalResolver;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.verifyValid = verifyTimer("valid", meterRegistry);
+        this.verifyInvalid = verifyTimer("invalid", meterRegistry);
+    }
+
+    // Signature check or claims-cache hit; the principal lookup is not included
+    private static Timer verifyTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Time to verify a bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -51,14 +68,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Verified once here (or served from the claims cache) and reused for the validity check below
+            final Claims claims;
+            long start = System.nanoTime();
+            try {
+                claims = jwtService.extractAllClaims(jwt);
+            } catch (RuntimeException e) {
+                verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            final String userEmail = claims.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = principalResolver.resolve(claims);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,72 @@
+package com.serviceharbor.auth.configs;
+
+import com.serviceharbor.auth.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Active when carbontrack.datasource.replica-urls lists at least one replica; otherwise Boot's single
+// spring.datasource pool is used as before. Wired like CarbonFootprintTrack's ReplicaRoutingConfiguration.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${carbontrack.datasource.replica-urls:}'.isBlank()")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             HikariDataSource primaryDataSource,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${carbontrack.datasource.replica-urls}") List<String> urls,
+                                                             @Value("${carbontrack.datasource.replica-pool-size:10}") int poolSize,
+                                                             @Value("${carbontrack.datasource.max-lag:2s}") Duration maxLag,
+                                                             @Value("${carbontrack.datasource.lag-check-interval:1s}") Duration checkInterval,
+                                                             @Value("${spring.application.name}") String applicationName) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, applicationName, maxLag);
+        for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.getLagMillis() / 1000.0)
+                    .description("How far the replica trails the primary; -1 when it could not be measured")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        routing.start(checkInterval);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
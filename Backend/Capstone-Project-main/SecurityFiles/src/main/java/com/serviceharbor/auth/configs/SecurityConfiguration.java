@@ -43,6 +43,7 @@ public class SecurityConfiguration{
                         .requestMatchers("/service_provider/**").hasRole("SERVICE_PROVIDER") // Only SERVICE_PROVIDER can access /provider/**
                         .requestMatchers("/user/**").hasRole("USER") // Only USER can access /user/**
                         .requestMatchers("/users/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Probes and the Prometheus scraper carry no token
                         .anyRequest().authenticated() // Securing all other endpoints
                 )
 
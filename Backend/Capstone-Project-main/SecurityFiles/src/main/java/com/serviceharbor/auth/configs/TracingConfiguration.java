@@ -0,0 +1,24 @@
+package com.serviceharbor.auth.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serviceharbor.auth.tracing.FileSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Same exporters as CarbonFootprintTrack's TracingConfiguration, under tracing.file instead of carbontrack.tracing.file
+@Configuration(proxyBeanMethods = false)
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tracing", name = "file")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file}") Path file,
+                                         ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}
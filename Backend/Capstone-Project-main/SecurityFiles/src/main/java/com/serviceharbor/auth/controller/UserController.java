@@ -1,11 +1,16 @@
 package com.serviceharbor.auth.controller;
 
+import com.serviceharbor.auth.dtos.FootprintDeltaDto;
+import com.serviceharbor.auth.model.JwtPrincipal;
 import com.serviceharbor.auth.model.User;
+import com.serviceharbor.auth.responses.UserPageResponse;
 import com.serviceharbor.auth.service.UserService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,16 +25,26 @@ public class UserController {
         this.userService = userService;
     }
 
+    // Keyset-paginated listing without password hashes; follow nextCursor until it is null
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public UserPageResponse getUsers(@RequestParam(defaultValue = "0") Long afterId,
+                                     @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE) int limit) {
+        return userService.getUsers(afterId, limit);
+    }
+
+    // The whole listing (or everything after afterId) as NDJSON, streamed from a database cursor
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(defaultValue = "0") Long afterId) {
+        StreamingResponseBody body = out -> userService.streamUsers(afterId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/user")
     public ResponseEntity<User> authenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(currentUser);
+        // The principal only carries id, email and role (see PrincipalResolver), so load the current profile
+        JwtPrincipal principal = (JwtPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(userService.getUserById(principal.getId()));
     }
 
     @PutMapping("/{id}")
@@ -42,6 +57,16 @@ public class UserController {
         }
     }
 
+    @PostMapping("/{id}/footprint-delta")
+    public ResponseEntity<User> addFootprintDelta(@PathVariable Long id, @RequestBody FootprintDeltaDto delta) {
+        return ResponseEntity.ok(userService.addFootprintDelta(id, delta.getDelta()));
+    }
+
+    @PostMapping("/footprint-deltas")
+    public ResponseEntity<List<Long>> addFootprintDeltas(@RequestBody List<FootprintDeltaDto> deltas) {
+        return ResponseEntity.ok(userService.addFootprintDeltas(deltas));
+    }
+
 //    @GetMapping
 //    public ResponseEntity<List<User>> allUsers() {
 //        List<User> users = userService.allUsers();
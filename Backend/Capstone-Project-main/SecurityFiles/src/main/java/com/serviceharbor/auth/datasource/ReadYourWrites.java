@@ -0,0 +1,38 @@
+package com.serviceharbor.auth.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Keeps reads of a user on the primary for a while after the user's row changed, so a replica that has not
+// caught up yet cannot serve the old name or total. The window should exceed carbontrack.datasource.max-lag.
+// Remembered per instance, like CarbonFootprintTrack's ReadYourWrites for submitters.
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(@Value("${carbontrack.datasource.read-your-writes:10s}") Duration window,
+                          @Value("${carbontrack.datasource.read-your-writes-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void wrote(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    // Call at the start of a read-only transaction about this user, before its first query
+    public void route(Long userId) {
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            ReplicaRoutingDataSource.usePrimaryForCurrentTransaction();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.serviceharbor.auth.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FootprintDeltaDto {
+
+    private Long userId;
+    private double delta;
+    private String idempotencyKey; // Optional; a delta whose key was already applied is skipped
+
+    public FootprintDeltaDto(Long userId, double delta) {
+        this.userId = userId;
+        this.delta = delta;
+    }
+
+}
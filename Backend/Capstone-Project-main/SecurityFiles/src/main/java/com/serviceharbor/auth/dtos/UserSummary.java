@@ -0,0 +1,14 @@
+package com.serviceharbor.auth.dtos;
+
+// Listing projection of User: only the public profile columns are selected, never the password hash
+public interface UserSummary {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    String getCity();
+
+    double getTotalCarbonFootprint();
+}
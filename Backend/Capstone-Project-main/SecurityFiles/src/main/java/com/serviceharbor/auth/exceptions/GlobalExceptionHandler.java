@@ -2,8 +2,10 @@ package com.serviceharbor.auth.exceptions;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -12,6 +14,22 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    // Load shedding from the password-hashing pool: tell the client to back off instead of failing the login
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<ProblemDetail> handleHashingOverload(PasswordHashingOverloadedException exception) {
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatusCode.valueOf(503), exception.getMessage());
+        errorDetail.setProperty("description", "The service is busy, please retry shortly");
+        return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetail);
+    }
+
+    // CarbonFootprintTrack treats a 404 as "no such user" rather than as UserManagement failing
+    @ExceptionHandler(UserNotFoundException.class)
+    public ProblemDetail handleUserNotFound(UserNotFoundException exception) {
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatusCode.valueOf(404), exception.getMessage());
+        errorDetail.setProperty("description", "The user does not exist");
+        return errorDetail;
+    }
+
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleSecurityException(Exception exception) {
         ProblemDetail errorDetail = null;
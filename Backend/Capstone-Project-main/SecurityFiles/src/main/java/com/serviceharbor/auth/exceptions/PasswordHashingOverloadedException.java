@@ -0,0 +1,8 @@
+package com.serviceharbor.auth.exceptions;
+
+// Thrown when the password-hashing pool is saturated; surfaced as 503 so clients retry later
+public class PasswordHashingOverloadedException extends RuntimeException {
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
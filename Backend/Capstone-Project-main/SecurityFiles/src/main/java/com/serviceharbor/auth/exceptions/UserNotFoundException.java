@@ -0,0 +1,8 @@
+package com.serviceharbor.auth.exceptions;
+
+// Thrown when no user has the requested id; surfaced as 404 so callers can tell it apart from a failure here
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(Long userId) {
+        super("User not found with id: " + userId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.serviceharbor.auth.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+// Idempotency record for a footprint delta that has already been added to a user's total
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "applied_footprint_delta")
+public class AppliedFootprintDelta {
+
+    @Id
+    @Column(name = "IdempotencyKey", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "UserId", nullable = false)
+    private Long userId;
+
+    @Column(name = "Delta", nullable = false)
+    private double delta;
+
+    @CreationTimestamp
+    @Column(name = "AppliedAt")
+    private Timestamp appliedAt;
+}
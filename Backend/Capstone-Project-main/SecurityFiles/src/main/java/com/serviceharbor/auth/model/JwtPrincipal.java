@@ -0,0 +1,35 @@
+package com.serviceharbor.auth.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// Principal rebuilt from the signed token claims (userId, email, role) without touching the users table
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
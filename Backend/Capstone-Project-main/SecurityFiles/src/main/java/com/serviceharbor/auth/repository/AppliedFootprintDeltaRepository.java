@@ -0,0 +1,25 @@
+package com.serviceharbor.auth.repository;
+
+import com.serviceharbor.auth.model.AppliedFootprintDelta;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AppliedFootprintDeltaRepository extends CrudRepository<AppliedFootprintDelta, String> {
+
+    // Claims the key: returns 1 if this call recorded it and 0 if it was already there. A concurrent
+    // insert of the same key waits on the primary key until the first transaction ends.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO applied_footprint_delta (idempotency_key, user_id, delta, applied_at) " +
+            "VALUES (:key, :userId, :delta, CURRENT_TIMESTAMP(6))", nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key, @Param("userId") Long userId, @Param("delta") double delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM applied_footprint_delta WHERE applied_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteAppliedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
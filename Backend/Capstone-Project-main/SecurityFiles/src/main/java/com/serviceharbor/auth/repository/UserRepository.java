@@ -1,15 +1,47 @@
 package com.serviceharbor.auth.repository;
 
+import com.serviceharbor.auth.dtos.UserSummary;
 import com.serviceharbor.auth.model.Role;
 import com.serviceharbor.auth.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends CrudRepository<User, Long>, ListPagingAndSortingRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Keyset page of the listing projection: users with id > afterId in id order
+    List<UserSummary> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Same listing as a database cursor, for the streaming endpoint; must be consumed inside a transaction.
+    // Connector/J buffers the whole result for a positive fetch size unless the URL sets useCursorFetch=true;
+    // Integer.MIN_VALUE makes it stream this statement row by row without changing the rest of the pool.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<UserSummary> streamByIdGreaterThanOrderByIdAsc(Long afterId);
+
+    // Atomic in-database increment, so concurrent submissions for the same user never overwrite each other
+    @Modifying
+    @Query("UPDATE User u SET u.totalCarbonFootprint = u.totalCarbonFootprint + CAST(:delta AS double), u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int addToTotalCarbonFootprint(@Param("id") Long id, @Param("delta") double delta);
+
+    // Password-only update for rehash-on-login; leaves the rest of the row (e.g. the footprint total) untouched
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 //    User findByRoleAndEmail(Role role, String email);
 }
@@ -0,0 +1,17 @@
+package com.serviceharbor.auth.responses;
+
+import com.serviceharbor.auth.dtos.UserSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One keyset page of users; pass nextCursor as afterId to get the next page (null once the listing is exhausted)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageResponse {
+    private List<UserSummary> users;
+    private Long nextCursor;
+}
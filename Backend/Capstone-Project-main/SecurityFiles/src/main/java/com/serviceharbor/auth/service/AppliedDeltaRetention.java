@@ -0,0 +1,52 @@
+package com.serviceharbor.auth.service;
+
+import com.serviceharbor.auth.repository.AppliedFootprintDeltaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Deletes idempotency keys of applied footprint deltas once CarbonFootprintTrack can no longer redeliver them.
+// A redelivery follows an unacknowledged delivery within minutes, so the retention only has to outlast the
+// longest UserManagement outage during which CarbonFootprintTrack keeps retrying.
+@Service
+public class AppliedDeltaRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(AppliedDeltaRetention.class);
+
+    private final AppliedFootprintDeltaRepository appliedFootprintDeltaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int deleteChunkSize;
+
+    public AppliedDeltaRetention(AppliedFootprintDeltaRepository appliedFootprintDeltaRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${carbontrack.applied-delta-retention:30d}") Duration retention,
+                                 @Value("${carbontrack.applied-delta-delete-chunk-size:5000}") int deleteChunkSize) {
+        this.appliedFootprintDeltaRepository = appliedFootprintDeltaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    // Each chunk is its own short transaction, so the sweep never holds many row locks at once
+    @Scheduled(cron = "${carbontrack.applied-delta-purge-cron:0 45 3 * * *}")
+    public long purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status ->
+                    appliedFootprintDeltaRepository.deleteAppliedBefore(before, deleteChunkSize));
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+        log.info("Purged {} applied footprint delta keys", deleted);
+        return deleted;
+    }
+}
@@ -6,28 +6,30 @@ import com.serviceharbor.auth.dtos.RegisterUserDto;
 import com.serviceharbor.auth.model.Role;
 import com.serviceharbor.auth.model.User;
 import com.serviceharbor.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Service
 public class AuthenticationService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
 
     public AuthenticationService(
             UserRepository userRepository,
             AuthenticationManager authenticationManager,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
     }
 
 //    public User signup(RegisterUserDto input) {
@@ -41,6 +43,18 @@ public class AuthenticationService {
 
 
     public User signup(RegisterUserDto input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            User user = createUser(input);
+            outcome = "success";
+            return user;
+        } finally {
+            sample.stop(authTimer("auth.signup", outcome));
+        }
+    }
+
+    private User createUser(RegisterUserDto input) {
         // Create a new User object
         User user = new User();
 
@@ -59,7 +73,20 @@ public class AuthenticationService {
     }
 
 
+    // Includes the password check on the hashing pool, queue wait included, and the user lookup
     public User authenticate(LoginUserDto input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            User user = login(input);
+            outcome = "success";
+            return user;
+        } finally {
+            sample.stop(authTimer("auth.login", outcome));
+        }
+    }
+
+    private User login(LoginUserDto input) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         input.getEmail(),
@@ -70,11 +97,9 @@ public class AuthenticationService {
         return userRepository.findByEmail(input.getEmail()).orElseThrow();
     }
 
-    public List<User> allUsers() {
-        List<User> users = new ArrayList<>();
-
-        userRepository.findAll().forEach(users::add);
-
-        return users;
+    private Timer authTimer(String name, String outcome) {
+        return Timer.builder(name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,83 @@
+package com.serviceharbor.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.serviceharbor.auth.model.JwtPrincipal;
+import com.serviceharbor.auth.model.Role;
+import com.serviceharbor.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Turns verified token claims into the request principal, always a JwtPrincipal (id, email, role) and never the
+// User entity, so no profile data or password hash rides along with the request; /users/user loads the profile.
+// CACHED (the default) loads the user through a short-lived cache, so a role change or a deleted account
+// takes effect within cache-ttl. DATABASE loads it on every request. STATELESS builds it from the claims
+// alone: tokens can't be revoked, so a demoted or deleted user keeps the token's access until it expires;
+// only choose it with a short expiration-time. Tokens issued before role/userId were embedded fall back to CACHED.
+// Cache misses query outside the cache so the JDBC call doesn't run (and pin a virtual thread) inside a map lock.
+@Service
+public class PrincipalResolver {
+
+    public enum Mode {
+        STATELESS,
+        CACHED,
+        DATABASE
+    }
+
+    private final UserDetailsService userDetailsService;
+    private final Mode mode;
+    private final Cache<String, JwtPrincipal> userDetailsCache;
+
+    public PrincipalResolver(
+            UserDetailsService userDetailsService,
+            @Value("${security.jwt.principal.mode:CACHED}") Mode mode,
+            @Value("${security.jwt.principal.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${security.jwt.principal.cache-max-size:10000}") long cacheSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.mode = mode;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "user.details");
+    }
+
+    public JwtPrincipal resolve(Claims claims) {
+        String email = claims.getSubject();
+        if (mode == Mode.DATABASE) {
+            return load(email);
+        }
+        if (mode == Mode.STATELESS) {
+            Long userId = claims.get("userId", Long.class);
+            String role = claims.get("role", String.class);
+            if (userId != null && role != null) {
+                return new JwtPrincipal(userId, email, Role.valueOf(role));
+            }
+        }
+        JwtPrincipal principal = userDetailsCache.getIfPresent(email);
+        if (principal == null) {
+            principal = load(email);
+            userDetailsCache.put(email, principal);
+        }
+        return principal;
+    }
+
+    private JwtPrincipal load(String email) {
+        User user = (User) userDetailsService.loadUserByUsername(email);
+        return new JwtPrincipal(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    // Called when a user changes so the next request sees the current role; profile fields are never cached here
+    public void invalidate(String email) {
+        userDetailsCache.invalidate(email);
+    }
+}
@@ -0,0 +1,127 @@
+package com.serviceharbor.auth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Tells every CarbonFootprintTrack instance that a user changed so each drops its cached copy of the profile.
+// The instances are looked up in Eureka on each change; carbontrack.base-url is only used when discovery knows
+// of none (e.g. running without Eureka). The calls are handed to a small pool and never waited for, so a slow
+// or dead instance can't hold up the caller (the afterCommit of a footprint delta batch); when the pool's
+// queue is full the notification is dropped and logged.
+// Best effort: a missed notification only means that instance keeps the cached profile until its TTL.
+@Service
+public class UserChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeNotifier.class);
+
+    private final RestClient restClient;
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+    private final URI fallbackUri;
+    private final ThreadPoolExecutor executor;
+
+    // Built from Boot's RestClient.Builder so the notification carries the current trace context
+    public UserChangeNotifier(RestClient.Builder restClientBuilder,
+                              DiscoveryClient discoveryClient,
+                              @Value("${carbontrack.service-id:CarbonFootprintTrack}") String serviceId,
+                              @Value("${carbontrack.base-url:http://localhost:6688}") URI fallbackUri,
+                              @Value("${carbontrack.notify-timeout:1s}") Duration timeout,
+                              @Value("${carbontrack.notify-threads:16}") int threads,
+                              @Value("${carbontrack.notify-queue-size:1000}") int queueSize) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder
+                .requestFactory(requestFactory)
+                .build();
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.fallbackUri = fallbackUri;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "user-change-notifier-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void userChanged(Long userId) {
+        notifyAll(instance -> notify(instance, userId));
+    }
+
+    // One call per instance for the whole batch, e.g. every user a batch of footprint deltas changed
+    public void usersChanged(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        notifyAll(instance -> notify(instance, userIds));
+    }
+
+    private void notifyAll(Consumer<URI> notification) {
+        for (URI instance : instances()) {
+            try {
+                executor.execute(() -> notification.accept(instance));
+            } catch (RejectedExecutionException e) {
+                log.warn("Dropped change notification for CarbonFootprintTrack at {}: {} notifications already queued",
+                        instance, executor.getQueue().size());
+            }
+        }
+    }
+
+    private List<URI> instances() {
+        List<URI> instances = discoveryClient.getInstances(serviceId).stream()
+                .map(ServiceInstance::getUri)
+                .toList();
+        return instances.isEmpty() ? List.of(fallbackUri) : instances;
+    }
+
+    private void notify(URI instance, Long userId) {
+        try {
+            restClient.post()
+                    .uri(UriComponentsBuilder.fromUri(instance)
+                            .path("/carbonTrack/users/{userId}/changed")
+                            .buildAndExpand(userId)
+                            .toUri())
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Could not notify CarbonFootprintTrack at {} about user {}: {}", instance, userId, e.getMessage());
+        }
+    }
+
+    private void notify(URI instance, Collection<Long> userIds) {
+        try {
+            restClient.post()
+                    .uri(UriComponentsBuilder.fromUri(instance)
+                            .path("/carbonTrack/users/changed")
+                            .build()
+                            .toUri())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(userIds)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Could not notify CarbonFootprintTrack at {} about {} users: {}", instance, userIds.size(), e.getMessage());
+        }
+    }
+}
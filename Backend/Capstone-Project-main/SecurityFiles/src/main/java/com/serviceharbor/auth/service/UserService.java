@@ -1,44 +1,165 @@
 package com.serviceharbor.auth.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serviceharbor.auth.datasource.ReadYourWrites;
+import com.serviceharbor.auth.dtos.FootprintDeltaDto;
+import com.serviceharbor.auth.dtos.UserSummary;
+import com.serviceharbor.auth.exceptions.UserNotFoundException;
 import com.serviceharbor.auth.model.User;
+import com.serviceharbor.auth.repository.AppliedFootprintDeltaRepository;
 import com.serviceharbor.auth.repository.UserRepository;
+import com.serviceharbor.auth.responses.UserPageResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final AppliedFootprintDeltaRepository appliedFootprintDeltaRepository;
+    private final PrincipalResolver principalResolver;
+    private final UserChangeNotifier userChangeNotifier;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWrites readYourWrites;
 
-    public UserService(UserRepository userRepository) {
+    public static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1000;
+
+    public UserService(UserRepository userRepository, AppliedFootprintDeltaRepository appliedFootprintDeltaRepository,
+                       PrincipalResolver principalResolver, UserChangeNotifier userChangeNotifier,
+                       PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                       ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
+        this.appliedFootprintDeltaRepository = appliedFootprintDeltaRepository;
+        this.principalResolver = principalResolver;
+        this.userChangeNotifier = userChangeNotifier;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        this.readYourWrites = readYourWrites;
+    }
+
+    // One keyset page of the user listing, at most MAX_PAGE users
+    @Transactional(readOnly = true)
+    public UserPageResponse getUsers(Long afterId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE);
+        List<UserSummary> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, Limit.of(size));
+        Long nextCursor = users.size() < size ? null : users.get(users.size() - 1).getId();
+        return new UserPageResponse(users, nextCursor);
     }
 
-    public List<User> getAllUsers() {
-        // Convert Iterable<User> to List<User>
-        Iterable<User> usersIterable = userRepository.findAll();
-        return StreamSupport.stream(usersIterable.spliterator(), false)
-                .collect(Collectors.toList());
+    // Writes every user with id > afterId as one JSON object per line, straight from a database cursor
+    public void streamUsers(Long afterId, OutputStream out) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = userRepository.streamByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                Iterator<UserSummary> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
+    // Served by a replica unless the user changed here recently: CarbonFootprintTrack refetches the
+    // profile as soon as it is told about a change, and must not cache the replica's older copy
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
+        readYourWrites.route(userId);
         return userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+                .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
     public User updateUser(Long userId, User updatedUser) {
         // Check if the user exists
         User existingUser = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+                .orElseThrow(() -> new UserNotFoundException(userId));
 
         // Update user details
         existingUser.setName(updatedUser.getName());
         existingUser.setTotalCarbonFootprint(updatedUser.getTotalCarbonFootprint());
         // Add other fields as needed
 
-        // Save the updated user
-        return userRepository.save(existingUser);
+        // Save the updated user and drop any cached principal for it
+        User saved = userRepository.save(existingUser);
+        principalResolver.invalidate(saved.getEmail());
+        readYourWrites.wrote(saved.getId());
+        userChangeNotifier.userChanged(saved.getId());
+        return saved;
+    }
+
+    @Transactional
+    public User addFootprintDelta(Long userId, double delta) {
+        if (userRepository.addToTotalCarbonFootprint(userId, delta) == 0) {
+            throw new UserNotFoundException(userId);
+        }
+        readYourWrites.wrote(userId);
+        notifyAfterCommit(List.of(userId));
+        return getUserById(userId);
+    }
+
+    // Applies every delta in one transaction and returns the ids that did not match a user.
+    // The idempotency key is recorded before the increment and the increment only runs if this call recorded it,
+    // so a delta delivered twice at the same time is still added once.
+    @Transactional
+    public List<Long> addFootprintDeltas(List<FootprintDeltaDto> deltas) {
+        List<Long> unknownUserIds = new ArrayList<>();
+        Set<Long> changedUserIds = new LinkedHashSet<>();
+        for (FootprintDeltaDto delta : deltas) {
+            String key = delta.getIdempotencyKey();
+            if (key != null && appliedFootprintDeltaRepository.insertIfAbsent(key, delta.getUserId(), delta.getDelta()) == 0) {
+                continue;
+            }
+            if (userRepository.addToTotalCarbonFootprint(delta.getUserId(), delta.getDelta()) == 0) {
+                unknownUserIds.add(delta.getUserId());
+                // Nothing was applied, so a redelivery must report the user as unknown again
+                if (key != null) {
+                    appliedFootprintDeltaRepository.deleteById(key);
+                }
+                continue;
+            }
+            readYourWrites.wrote(delta.getUserId());
+            changedUserIds.add(delta.getUserId());
+        }
+        notifyAfterCommit(changedUserIds);
+        return unknownUserIds;
+    }
+
+    // CarbonFootprintTrack refetches a profile as soon as it is told about the change, so it must not be told
+    // before the new total is visible
+    private void notifyAfterCommit(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userChangeNotifier.usersChanged(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userChangeNotifier.usersChanged(userIds);
+            }
+        });
     }
 }
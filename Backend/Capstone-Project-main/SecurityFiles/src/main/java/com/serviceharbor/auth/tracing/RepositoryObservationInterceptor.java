@@ -0,0 +1,43 @@
+package com.serviceharbor.auth.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+// One "repository.invocation" observation per repository method call, named e.g. UserRepository.findByEmail,
+// the same name and tags CarbonFootprintTrack uses for its repositories.
+// streamByIdGreaterThanOrderByIdAsc is only timed until the stream is returned, not while it is consumed.
+class RepositoryObservationInterceptor implements MethodInterceptor {
+
+    private final Supplier<ObservationRegistry> observationRegistry;
+    private final String repository;
+
+    RepositoryObservationInterceptor(Supplier<ObservationRegistry> observationRegistry, String repository) {
+        this.observationRegistry = observationRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getName();
+        Observation observation = Observation.createNotStarted("repository.invocation", observationRegistry.get())
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+}
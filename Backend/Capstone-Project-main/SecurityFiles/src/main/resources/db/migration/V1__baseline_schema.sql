@@ -0,0 +1,24 @@
+-- Tables as hibernate ddl-auto=update created them. IF NOT EXISTS lets this run as a no-op on schemas that
+-- predate the migrations (Flyway baselines those at version 0, so this script still runs there).
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    city varchar(255) NOT NULL,
+    total_carbon_footprint float(53) NOT NULL,
+    role enum ('ADMIN','SERVICE_PROVIDER','USER'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS applied_footprint_delta (
+    idempotency_key varchar(64) NOT NULL,
+    user_id bigint NOT NULL,
+    delta float(53) NOT NULL,
+    applied_at datetime(6),
+    PRIMARY KEY (idempotency_key)
+) ENGINE=InnoDB;
@@ -0,0 +1,2 @@
+-- AppliedDeltaRetention deletes keys by age
+CREATE INDEX idx_applied_footprint_delta_applied_at ON applied_footprint_delta (applied_at);
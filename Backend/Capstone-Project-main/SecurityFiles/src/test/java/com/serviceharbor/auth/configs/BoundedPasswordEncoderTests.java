@@ -0,0 +1,83 @@
+package com.serviceharbor.auth.configs;
+
+import com.serviceharbor.auth.exceptions.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+	// The first hash takes 500ms, the second holds the single hashing thread until released, the rest are instant.
+	// Like bcrypt, none of them stops when interrupted.
+	private static class SlowEncoder implements PasswordEncoder {
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicInteger hashes = new AtomicInteger();
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			int hash = hashes.incrementAndGet();
+			if (hash == 1) {
+				sleepUninterruptibly(500);
+			} else if (hash == 2) {
+				blocked.countDown();
+				while (release.getCount() > 0) {
+					sleepUninterruptibly(10);
+				}
+			}
+			return "hashed:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+
+		private static void sleepUninterruptibly(long millis) {
+			long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+			while (System.nanoTime() < end) {
+				try {
+					Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime())));
+				} catch (InterruptedException ignored) {
+					// keep hashing
+				}
+			}
+		}
+	}
+
+	@Test
+	void aHashThatStartsTooLateToFinishIsSkipped() throws Exception {
+		SlowEncoder delegate = new SlowEncoder();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 4, Duration.ofSeconds(1),
+				new SimpleMeterRegistry());
+		try {
+			assertEquals("hashed:warm-up", encoder.encode("warm-up"));
+
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+			assertTrue(delegate.blocked.await(5, TimeUnit.SECONDS));
+			CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+			// The second call is queued and, once the thread frees up, has ~300ms left: less than a typical hash
+			Thread.sleep(700);
+			delegate.release.countDown();
+
+			assertEquals("hashed:first", first.join());
+			CompletionException skipped = assertThrows(CompletionException.class, second::join);
+			assertInstanceOf(PasswordHashingOverloadedException.class, skipped.getCause());
+			assertEquals(2, delegate.hashes.get());
+		} finally {
+			encoder.destroy();
+		}
+	}
+}
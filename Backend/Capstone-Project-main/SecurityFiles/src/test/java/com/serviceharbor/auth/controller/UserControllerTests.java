@@ -0,0 +1,76 @@
+package com.serviceharbor.auth.controller;
+
+import com.serviceharbor.auth.exceptions.GlobalExceptionHandler;
+import com.serviceharbor.auth.exceptions.UserNotFoundException;
+import com.serviceharbor.auth.model.JwtPrincipal;
+import com.serviceharbor.auth.model.Role;
+import com.serviceharbor.auth.model.User;
+import com.serviceharbor.auth.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// CarbonFootprintTrack's circuit breaker ignores 4xx answers, so an unknown user must come back as a 404
+// and not as the 500 every other exception gets. UserClientResilienceTests stubs exactly this response.
+class UserControllerTests {
+
+	private final UserService userService = mock(UserService.class);
+
+	private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService))
+			.setControllerAdvice(new GlobalExceptionHandler())
+			.build();
+
+	@Test
+	void unknownUserIsNotFound() throws Exception {
+		when(userService.getUserById(4L)).thenThrow(new UserNotFoundException(4L));
+
+		mockMvc.perform(get("/users/4"))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.detail").value("User not found with id: 4"))
+				.andExpect(jsonPath("$.description").value("The user does not exist"));
+	}
+
+	@Test
+	void otherFailuresAreStillServerErrors() throws Exception {
+		when(userService.getUserById(5L)).thenThrow(new IllegalStateException("database is down"));
+
+		mockMvc.perform(get("/users/5"))
+				.andExpect(status().isInternalServerError());
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void theAuthenticatedUserIsLoadedFresh() throws Exception {
+		JwtPrincipal principal = new JwtPrincipal(3L, "a@x.com", Role.USER);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+		User stored = new User();
+		stored.setId(3L);
+		stored.setEmail("a@x.com");
+		stored.setRole(Role.USER);
+		stored.setTotalCarbonFootprint(42.5);
+		when(userService.getUserById(3L)).thenReturn(stored);
+
+		mockMvc.perform(get("/users/user"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(3))
+				.andExpect(jsonPath("$.totalCarbonFootprint").value(42.5));
+	}
+}
@@ -0,0 +1,104 @@
+package com.serviceharbor.auth.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The verified-claims cache is observed through the jwt.claims cache metrics: a hit is a token served without
+// verifying it again, and the size is how many tokens are held.
+class JwtServiceTests {
+
+	private static final String SECRET = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+	private static final String OTHER_SECRET = "0a1b2c3d4e5f60718293a4b5c6d7e8f90a1b2c3d4e5f60718293a4b5c6d7e8f9";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UserDetails user = User.withUsername("a@x.com").password("x").build();
+
+	private JwtService jwtService(long expirationMillis) {
+		return new JwtService(SECRET, expirationMillis, 100, meterRegistry);
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", result).functionCounter().count();
+	}
+
+	private double size() {
+		return meterRegistry.get("cache.size").tag("cache", "jwt.claims").gauge().value();
+	}
+
+	// Same signature, different subject: the signature no longer matches the payload
+	private static String withSubject(String token, String subject) {
+		String[] parts = token.split("\\.");
+		String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+				.replace("\"sub\":\"a@x.com\"", "\"sub\":\"" + subject + "\"");
+		return parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+				+ "." + parts[2];
+	}
+
+	@Test
+	void aVerifiedTokenIsServedFromCacheUntilItExpires() throws InterruptedException {
+		JwtService jwtService = jwtService(1500);
+		String token = jwtService.generateToken(Map.of(), user);
+
+		assertEquals("a@x.com", jwtService.extractUsername(token));
+		assertEquals("a@x.com", jwtService.extractUsername(token));
+		assertEquals(1, gets("miss"));
+		assertEquals(1, gets("hit"));
+
+		// Once the token has expired its entry is gone, so the token is verified again and rejected
+		Thread.sleep(2000);
+		assertThrows(ExpiredJwtException.class, () -> jwtService.extractUsername(token));
+		assertEquals(2, gets("miss"));
+		assertEquals(1, gets("hit"));
+	}
+
+	@Test
+	void aTamperedCopyOfACachedTokenIsStillVerified() {
+		JwtService jwtService = jwtService(60_000);
+		String token = jwtService.generateToken(Map.of(), user);
+		jwtService.extractAllClaims(token);
+
+		String tampered = withSubject(token, "admin@x.com");
+		assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+		assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+
+		assertEquals(0, gets("hit"));
+		assertEquals(1, size());
+	}
+
+	@Test
+	void onlySuccessfulVerificationsAreCached() {
+		JwtService jwtService = jwtService(60_000);
+		String foreign = new JwtService(OTHER_SECRET, 60_000, 100, new SimpleMeterRegistry()).generateToken(Map.of(), user);
+		String expired = jwtService(-1000).generateToken(Map.of(), user);
+		// Verifies, but carries no expiry, so there is nothing to bound its cache entry by
+		String unbounded = Jwts.builder()
+				.setSubject("a@x.com")
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(foreign));
+			assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(expired));
+			assertEquals("a@x.com", jwtService.extractUsername(unbounded));
+		}
+
+		// Every attempt went back to the parser; none of them was answered from the cache
+		assertEquals(0, gets("hit"));
+		assertEquals(6, gets("miss"));
+	}
+}
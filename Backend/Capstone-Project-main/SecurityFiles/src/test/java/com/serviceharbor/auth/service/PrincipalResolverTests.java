@@ -0,0 +1,84 @@
+package com.serviceharbor.auth.service;
+
+import com.serviceharbor.auth.model.JwtPrincipal;
+import com.serviceharbor.auth.model.Role;
+import com.serviceharbor.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalResolverTests {
+
+	private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+	private PrincipalResolver resolver(PrincipalResolver.Mode mode) {
+		return new PrincipalResolver(userDetailsService, mode, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+	}
+
+	private static Claims claims(String email) {
+		return Jwts.claims().setSubject(email);
+	}
+
+	private User stored() {
+		User user = new User();
+		user.setId(3L);
+		user.setEmail("a@x.com");
+		user.setPassword("{bcrypt}hash");
+		user.setRole(Role.USER);
+		when(userDetailsService.loadUserByUsername("a@x.com")).thenReturn(user);
+		return user;
+	}
+
+	@Test
+	void theCachedPrincipalCarriesNoProfileOrPasswordHash() {
+		stored();
+		PrincipalResolver resolver = resolver(PrincipalResolver.Mode.CACHED);
+
+		JwtPrincipal first = resolver.resolve(claims("a@x.com"));
+		JwtPrincipal second = resolver.resolve(claims("a@x.com"));
+
+		assertEquals(3L, second.getId());
+		assertEquals(Role.USER, second.getRole());
+		assertNull(second.getPassword());
+		assertSame(first, second);
+		verify(userDetailsService, times(1)).loadUserByUsername("a@x.com");
+	}
+
+	@Test
+	void invalidatingReloadsTheUser() {
+		User user = stored();
+		PrincipalResolver resolver = resolver(PrincipalResolver.Mode.CACHED);
+		resolver.resolve(claims("a@x.com"));
+
+		user.setRole(Role.ADMIN);
+		resolver.invalidate("a@x.com");
+
+		assertEquals(Role.ADMIN, resolver.resolve(claims("a@x.com")).getRole());
+		verify(userDetailsService, times(2)).loadUserByUsername("a@x.com");
+	}
+
+	@Test
+	void databaseModeLoadsOnEveryRequest() {
+		stored();
+		PrincipalResolver resolver = resolver(PrincipalResolver.Mode.DATABASE);
+
+		resolver.resolve(claims("a@x.com"));
+		JwtPrincipal principal = resolver.resolve(claims("a@x.com"));
+
+		assertEquals(3L, principal.getId());
+		assertNull(principal.getPassword());
+		verify(userDetailsService, times(2)).loadUserByUsername("a@x.com");
+	}
+}
@@ -0,0 +1,95 @@
+package com.serviceharbor.auth.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// A CarbonFootprintTrack stand-in that holds every notification until released, like an instance that hangs.
+// Eureka knows no instance, so the notifier falls back to the stub's URL.
+class UserChangeNotifierTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger received = new AtomicInteger();
+	private final HttpServer stub;
+
+	UserChangeNotifierTests() throws IOException {
+		stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		stub.setExecutor(Executors.newCachedThreadPool());
+		stub.createContext("/carbonTrack/users/", exchange -> {
+			received.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		stub.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		release.countDown();
+		stub.stop(0);
+	}
+
+	private UserChangeNotifier notifier(int threads, int queueSize) {
+		return new UserChangeNotifier(RestClient.builder(), mock(DiscoveryClient.class), "CarbonFootprintTrack",
+				URI.create("http://localhost:" + stub.getAddress().getPort()), Duration.ofSeconds(10), threads, queueSize);
+	}
+
+	private static void awaitCount(AtomicInteger count, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count.get() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void aHangingInstanceDoesNotHoldUpTheCaller() throws InterruptedException {
+		UserChangeNotifier notifier = notifier(2, 10);
+
+		long start = System.nanoTime();
+		notifier.usersChanged(List.of(1L, 2L));
+		notifier.userChanged(3L);
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+		awaitCount(received, 2);
+		assertEquals(2, received.get());
+	}
+
+	@Test
+	void notificationsBeyondTheQueueAreDroppedRatherThanRunByTheCaller() throws InterruptedException {
+		UserChangeNotifier notifier = notifier(1, 1);
+
+		long start = System.nanoTime();
+		for (long userId = 1; userId <= 5; userId++) {
+			notifier.userChanged(userId);
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+		// One call is in flight and one waits in the queue; the other three were dropped
+		awaitCount(received, 1);
+		release.countDown();
+		awaitCount(received, 2);
+		Thread.sleep(200);
+		assertEquals(2, received.get());
+	}
+}
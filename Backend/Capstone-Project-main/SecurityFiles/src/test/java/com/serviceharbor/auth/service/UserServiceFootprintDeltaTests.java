@@ -0,0 +1,72 @@
+package com.serviceharbor.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serviceharbor.auth.datasource.ReadYourWrites;
+import com.serviceharbor.auth.dtos.FootprintDeltaDto;
+import com.serviceharbor.auth.repository.AppliedFootprintDeltaRepository;
+import com.serviceharbor.auth.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// No database: checks which users CarbonFootprintTrack is told about, and that it is told only once the
+// deltas are committed. The transaction is simulated with Spring's synchronization callbacks.
+class UserServiceFootprintDeltaTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AppliedFootprintDeltaRepository appliedRepository = mock(AppliedFootprintDeltaRepository.class);
+	private final UserChangeNotifier userChangeNotifier = mock(UserChangeNotifier.class);
+	private final UserService userService = new UserService(userRepository, appliedRepository,
+			mock(PrincipalResolver.class), userChangeNotifier, mock(PlatformTransactionManager.class), new ObjectMapper(),
+			mock(ReadYourWrites.class));
+
+	@BeforeEach
+	void startTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	void endTransaction() {
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	private static void commit() {
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+	}
+
+	@Test
+	void appliedUsersAreNotifiedOnceAfterCommit() {
+		when(appliedRepository.insertIfAbsent(anyString(), anyLong(), anyDouble())).thenReturn(1);
+		when(appliedRepository.insertIfAbsent(eq("seen"), anyLong(), anyDouble())).thenReturn(0);
+		when(userRepository.addToTotalCarbonFootprint(anyLong(), anyDouble())).thenReturn(1);
+		when(userRepository.addToTotalCarbonFootprint(eq(9L), anyDouble())).thenReturn(0);
+
+		List<Long> unknown = userService.addFootprintDeltas(List.of(
+				new FootprintDeltaDto(1L, 2, "a"),
+				new FootprintDeltaDto(1L, 3, "b"),
+				new FootprintDeltaDto(2L, 1, "seen"),
+				new FootprintDeltaDto(9L, 1, "c")));
+
+		assertEquals(List.of(9L), unknown);
+		verify(userChangeNotifier, never()).usersChanged(any());
+		commit();
+		verify(userChangeNotifier).usersChanged(Set.of(1L));
+	}
+}
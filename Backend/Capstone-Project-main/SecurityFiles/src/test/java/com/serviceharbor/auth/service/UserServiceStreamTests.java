@@ -0,0 +1,89 @@
+package com.serviceharbor.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serviceharbor.auth.datasource.ReadYourWrites;
+import com.serviceharbor.auth.dtos.UserSummary;
+import com.serviceharbor.auth.repository.AppliedFootprintDeltaRepository;
+import com.serviceharbor.auth.repository.UserRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// No database: MySQL's streaming behaviour can't be reproduced by an embedded one, so this checks what
+// UserManagement asks the driver for and how the stream is consumed.
+class UserServiceStreamTests {
+
+	private record Summary(Long id, String name, String email, String city, double totalCarbonFootprint)
+			implements UserSummary {
+		public Long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getEmail() {
+			return email;
+		}
+
+		public String getCity() {
+			return city;
+		}
+
+		public double getTotalCarbonFootprint() {
+			return totalCarbonFootprint;
+		}
+	}
+
+	@Test
+	void theListingCursorAsksConnectorJToStreamRowByRow() throws NoSuchMethodException {
+		QueryHints hints = UserRepository.class.getMethod("streamByIdGreaterThanOrderByIdAsc", Long.class)
+				.getAnnotation(QueryHints.class);
+
+		assertEquals(HibernateHints.HINT_FETCH_SIZE, hints.value()[0].name());
+		assertEquals(Integer.MIN_VALUE, Integer.parseInt(hints.value()[0].value()));
+	}
+
+	@Test
+	void usersAreWrittenAsNdjsonFromACursorClosedInsideOneReadOnlyTransaction() {
+		UserRepository userRepository = mock(UserRepository.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		AtomicBoolean closed = new AtomicBoolean();
+		when(userRepository.streamByIdGreaterThanOrderByIdAsc(0L)).thenReturn(Stream.<UserSummary>of(
+				new Summary(1L, "a", "a@x.com", "pune", 1.5),
+				new Summary(2L, "b", "b@x.com", "delhi", 0)).onClose(() -> closed.set(true)));
+		UserService userService = new UserService(userRepository, mock(AppliedFootprintDeltaRepository.class),
+				mock(PrincipalResolver.class), mock(UserChangeNotifier.class), transactionManager, new ObjectMapper(),
+				mock(ReadYourWrites.class));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		userService.streamUsers(null, out);
+
+		assertEquals("{\"id\":1,\"name\":\"a\",\"email\":\"a@x.com\",\"city\":\"pune\",\"totalCarbonFootprint\":1.5}\n" +
+				"{\"id\":2,\"name\":\"b\",\"email\":\"b@x.com\",\"city\":\"delhi\",\"totalCarbonFootprint\":0.0}\n",
+				out.toString(StandardCharsets.UTF_8));
+		assertTrue(closed.get());
+		ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(transactionManager).getTransaction(definition.capture());
+		assertTrue(definition.getValue().isReadOnly());
+		verify(transactionManager).commit(any());
+	}
+}
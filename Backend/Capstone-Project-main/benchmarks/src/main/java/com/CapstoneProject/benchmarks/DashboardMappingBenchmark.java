@@ -0,0 +1,79 @@
+package com.CapstoneProject.benchmarks;
+
+import com.CapstoneProject.CarbonFootprintTrack.ResponseDto.DashboardResponseDto;
+import com.CapstoneProject.CarbonFootprintTrack.projection.DailyFootprintView;
+import com.CapstoneProject.CarbonFootprintTrack.service.CarbonTrackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Per-row work of the dashboard endpoint once the rows are back from the database:
+// date formatting and projection-to-DTO mapping for one page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardMappingBenchmark {
+
+    @Param({"30", "365"})
+    private int rows;
+
+    private List<DailyFootprintView> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(rows);
+        LocalDate date = LocalDate.of(2024, 12, 31);
+        for (int i = 0; i < rows; i++) {
+            page.add(new Row((long) i + 1, date.minusDays(i), 10.0 + i % 17));
+        }
+    }
+
+    @Benchmark
+    public void dateConversion(Blackhole blackhole) {
+        for (DailyFootprintView row : page) {
+            blackhole.consume(CarbonTrackService.dateConversion(row.getDate()));
+        }
+    }
+
+    @Benchmark
+    public List<DashboardResponseDto> dashboardMapping() {
+        return page.stream()
+                .map(CarbonTrackService::toDashboardDto)
+                .collect(Collectors.toList());
+    }
+
+    private record Row(Long id, LocalDate date, double totalCarbonFootprint) implements DailyFootprintView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public double getTotalCarbonFootprint() {
+            return totalCarbonFootprint;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.CapstoneProject.benchmarks;
+
+import com.CapstoneProject.CarbonFootprintTrack.emission.EmissionFactorTable;
+import com.CapstoneProject.CarbonFootprintTrack.entities.Transportation;
+import com.CapstoneProject.CarbonFootprintTrack.entities.Wastage;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionCategory;
+import com.CapstoneProject.CarbonFootprintTrack.model.EmissionFactor;
+import com.CapstoneProject.CarbonFootprintTrack.service.CarbonTrackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-submission emission maths. A form usually has a handful of transport legs and wastage entries;
+// the larger sizes cover bulk-imported days with many legs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmissionCalculationBenchmark {
+
+    private static final String[] MODES = {"car", "Electric Car", "train", "FLIGHT", "bus", "walk"};
+    private static final String[] CITIES = {"pune", "mumbai", "delhi", "chennai", "bangalore"};
+
+    @Param({"4", "16", "64"})
+    private int formSize;
+
+    private List<Transportation> transportations;
+    private List<Wastage> wastages;
+    private EmissionFactorTable factors;
+    private int region;
+    private long day;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        transportations = new ArrayList<>(formSize);
+        wastages = new ArrayList<>(formSize);
+        for (int i = 0; i < formSize; i++) {
+            boolean byDistance = random.nextInt(4) != 0;
+            transportations.add(new Transportation(MODES[random.nextInt(MODES.length)],
+                    byDistance ? random.nextDouble() * 50 : 0.0,
+                    byDistance ? 0.0 : random.nextDouble() * 120));
+            wastages.add(new Wastage(random.nextDouble() * 2, random.nextDouble() * 2));
+        }
+
+        // A global row plus a regional override with two dated versions for every category and city
+        List<EmissionFactor> rows = new ArrayList<>();
+        for (EmissionCategory category : EmissionCategory.values()) {
+            rows.add(new EmissionFactor(null, category, null, null, category.getDefaultFactor(), null));
+            for (String city : CITIES) {
+                rows.add(new EmissionFactor(null, category, city, LocalDate.of(2023, 1, 1), random.nextDouble(), null));
+                rows.add(new EmissionFactor(null, category, city, LocalDate.of(2024, 7, 1), random.nextDouble(), null));
+            }
+        }
+        factors = EmissionFactorTable.of(rows);
+        region = factors.regionOf("pune");
+        day = LocalDate.of(2024, 9, 15).toEpochDay();
+    }
+
+    @Benchmark
+    public double transportationEmissions() {
+        return CarbonTrackService.calculateTransportationEmissions(transportations, factors, region, day);
+    }
+
+    @Benchmark
+    public double wastageEmissions() {
+        return CarbonTrackService.calculateWastageEmissions(wastages,
+                factors.factor(EmissionCategory.WASTE, region, day));
+    }
+
+    @Benchmark
+    public void emissionFactor(Blackhole blackhole) {
+        for (String mode : MODES) {
+            blackhole.consume(CarbonTrackService.getEmissionFactor(mode, factors, region, day));
+        }
+    }
+
+    // The switch this replaced, kept as a reference point for the table lookup above
+    @Benchmark
+    public void emissionFactorSwitchBaseline(Blackhole blackhole) {
+        for (String mode : MODES) {
+            blackhole.consume(switchFactor(mode));
+        }
+    }
+
+    private static double switchFactor(String mode) {
+        switch (mode.toLowerCase()) {
+            case "car":
+                return 0.2;
+            case "electric car":
+                return 0.1;
+            case "train":
+                return 0.05;
+            case "flight":
+                return 0.3;
+            case "bus":
+                return 0.15;
+            default:
+                return 0.2;
+        }
+    }
+}
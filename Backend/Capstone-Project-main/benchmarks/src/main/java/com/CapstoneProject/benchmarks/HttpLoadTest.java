@@ -0,0 +1,175 @@
+package com.CapstoneProject.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop HTTP load against a running CarbonFootprintTrack or UserManagement instance: -Dconcurrency clients
+// each send one GET after another for -Dduration.s seconds. Alongside throughput and latency it samples the
+// server's jvm.threads.live once a second through /actuator/metrics, which is the number that differs between
+// platform and virtual threads. Compare the two modes by running it once per server start:
+//
+//   VIRTUAL_THREADS=false java -jar CarbonFootprintTrack-exec.jar      (then again with true)
+//   java -Durl=http://localhost:6688/carbonTrack/user/1/dashboard -Dconcurrency=1000 -Dlabel=platform \
+//        -cp target/benchmarks.jar com.CapstoneProject.benchmarks.HttpLoadTest
+//
+// Other settings: -Dwarmup.s (default 5), -Dtoken (sent as a Bearer token, for UserManagement) and
+// -Dmetrics.url (defaults to /actuator/metrics on the target host).
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(required("url"));
+        int concurrency = Integer.getInteger("concurrency", 1000);
+        int warmupSeconds = Integer.getInteger("warmup.s", 5);
+        int durationSeconds = Integer.getInteger("duration.s", 30);
+        String label = System.getProperty("label", "run");
+        String token = System.getProperty("token");
+        URI metrics = URI.create(System.getProperty("metrics.url",
+                target.getScheme() + "://" + target.getAuthority() + "/actuator/metrics"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        LongAdder errors = new LongAdder();
+        List<long[]> latencies = new ArrayList<>();
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, request, measureFrom, deadline, errors);
+            workers.add(worker);
+            pool.execute(worker);
+        }
+
+        AtomicLong maxServerThreads = new AtomicLong(-1);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            long live = serverMetric(client, metrics, "jvm.threads.live");
+            maxServerThreads.accumulateAndGet(live, Math::max);
+        }, 0, 1, TimeUnit.SECONDS);
+
+        pool.shutdown();
+        pool.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+        sampler.shutdownNow();
+        long peakServerThreads = serverMetric(client, metrics, "jvm.threads.peak");
+
+        for (Worker worker : workers) {
+            latencies.add(worker.latencies());
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        System.out.printf("%-10s %11s %10s %10s %8s %8s %8s %8s %12s %12s%n",
+                "label", "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors",
+                "srv thr max", "srv thr peak");
+        System.out.printf("%-10s %11d %10d %10.1f %8.1f %8.1f %8.1f %8d %12d %12d%n",
+                label, concurrency, all.length, all.length / (double) durationSeconds,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0), errors.sum(),
+                maxServerThreads.get(), peakServerThreads);
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long deadline;
+        private final LongAdder errors;
+        private long[] latencies = new long[256];
+        private int count;
+
+        Worker(HttpClient client, HttpRequest request, long measureFrom, long deadline, LongAdder errors) {
+            this.client = client;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.errors = errors;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                boolean ok;
+                try {
+                    ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long end = System.nanoTime();
+                if (now < measureFrom || end > deadline) {
+                    continue;
+                }
+                if (!ok) {
+                    errors.increment();
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - now;
+            }
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // -1 when the actuator endpoint is not reachable
+    private static long serverMetric(HttpClient client, URI metrics, String name) {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(metrics + "/" + name)).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return -1;
+            }
+            JsonNode measurement = MAPPER.readTree(response.body()).path("measurements").path(0);
+            return measurement.path("value").asLong(-1);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Set -D" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,80 @@
+package com.CapstoneProject.benchmarks;
+
+import com.CapstoneProject.CarbonFootprintTrack.leaderboard.CityLeaderboard;
+import com.CapstoneProject.CarbonFootprintTrack.model.leaderBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Ranking one city: the full sort the leaderboard endpoint used to do per request,
+// against the CityLeaderboard index that replaced it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LeaderboardBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int citySize;
+
+    private List<leaderBoard> entries;
+    private CityLeaderboard index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        entries = new ArrayList<>(citySize);
+        index = new CityLeaderboard();
+        for (long userId = 1; userId <= citySize; userId++) {
+            leaderBoard entry = new leaderBoard(userId, "user" + userId, LocalDate.of(2024, 1, 1), "pune",
+                    Math.round(random.nextDouble() * 100_000) / 10.0);
+            entries.add(entry);
+            index.upsert(entry);
+        }
+    }
+
+    // Previous LeaderBoardService.getLeaderBoard: sort the whole city on every request
+    @Benchmark
+    public List<leaderBoard> fullSort() {
+        return entries.stream()
+                .sorted((lb1, lb2) -> Double.compare(lb2.getTotalCarbonFootprint(), lb1.getTotalCarbonFootprint()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CityLeaderboard.RankedEntry> indexTopPage() {
+        return index.range(0, 100);
+    }
+
+    @Benchmark
+    public long indexRankOf() {
+        return index.rankOf((long) ThreadLocalRandom.current().nextInt(1, citySize + 1));
+    }
+
+    // One submission moving a user's total, as calculateAndSubmit does after commit
+    @Benchmark
+    public void indexUpsert() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        leaderBoard entry = entries.get(random.nextInt(citySize));
+        entry.setTotalCarbonFootprint(entry.getTotalCarbonFootprint() + random.nextDouble() * 10);
+        index.upsert(entry);
+    }
+}
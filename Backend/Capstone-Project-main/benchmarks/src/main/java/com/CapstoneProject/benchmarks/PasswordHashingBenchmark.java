@@ -0,0 +1,87 @@
+package com.CapstoneProject.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one login-time password check in UserManagement for each bcrypt strength, plus Argon2 with the
+// Spring Security 5.8 defaults. main() runs the bcrypt sweep and prints the highest strength whose check
+// stays within -Dtarget.ms (default 250), i.e. the value for security.password.bcrypt-strength.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "11", "12", "13", "14"})
+    private int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private String bcryptHash;
+    private Argon2PasswordEncoder argon2;
+    private String argon2Hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        bcryptHash = bcrypt.encode(PASSWORD);
+        argon2 = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        argon2Hash = argon2.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return bcrypt.matches(PASSWORD, bcryptHash);
+    }
+
+    // Independent of the strength parameter; run with -p strength=10 to measure it once
+    @Benchmark
+    public boolean argon2Matches() {
+        return argon2.matches(PASSWORD, argon2Hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double targetMs = Double.parseDouble(System.getProperty("target.ms", "250"));
+        Options options = new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName() + ".bcryptMatches")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int chosen = -1;
+        for (RunResult result : results) {
+            int strength = Integer.parseInt(result.getParams().getParam("strength"));
+            double ms = result.getPrimaryResult().getScore();
+            System.out.printf("bcrypt strength %2d: %8.2f ms%n", strength, ms);
+            if (ms <= targetMs && strength > chosen) {
+                chosen = strength;
+            }
+        }
+        if (chosen < 0) {
+            System.out.printf("No strength meets %.0f ms on this machine; use the lowest and add hashing threads%n", targetMs);
+        } else {
+            System.out.printf("security.password.bcrypt-strength: %d  (target %.0f ms)%n", chosen, targetMs);
+        }
+    }
+}